@@ -2,8 +2,10 @@ package com.codetrack;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CodeTrackApplication {
     public static void main(String[] args) {
         SpringApplication.run(CodeTrackApplication.class, args);
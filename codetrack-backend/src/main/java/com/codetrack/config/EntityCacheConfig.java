@@ -0,0 +1,65 @@
+package com.codetrack.config;
+
+import com.codetrack.entity.Problem;
+import com.codetrack.entity.SolvedDate;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process Hibernate second-level cache: one bounded Caffeine region per cached entity and
+ * collection (see the {@code @Cache} annotations on {@link Problem} and {@link SolvedDate}).
+ * Entries expire {@code ttl-seconds} after they were written and are evicted by size beyond
+ * {@code max-entries}; a single problem's revision history is one collection entry, but each
+ * revision is its own SolvedDate entry, hence the larger bound for that region.
+ */
+@Configuration
+public class EntityCacheConfig {
+    
+    public static final List<String> REGIONS = List.of(
+            Problem.CACHE_REGION,
+            Problem.TAGS_CACHE_REGION,
+            Problem.APPROACHES_CACHE_REGION,
+            Problem.SOLVED_DATES_CACHE_REGION,
+            SolvedDate.CACHE_REGION);
+    
+    @Value("${codetrack.entity-cache.max-entries:10000}")
+    private long maxEntries;
+    
+    @Value("${codetrack.entity-cache.solved-dates-max-entries:100000}")
+    private long solvedDatesMaxEntries;
+    
+    @Value("${codetrack.entity-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+    
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("codetrack-entity-cache"), getClass().getClassLoader());
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+            config.setMaximumSize(OptionalLong.of(region.equals(SolvedDate.CACHE_REGION) ? solvedDatesMaxEntries : maxEntries));
+            config.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+            if (cacheManager.getCache(region) == null) {
+                cacheManager.createCache(region, config);
+            }
+        }
+        return cacheManager;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+}
@@ -1,6 +1,9 @@
 package com.codetrack.config;
 
+import com.codetrack.util.AuthenticatedUser;
 import com.codetrack.util.JwtUtil;
+import com.codetrack.util.VerifiedTokenCache;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,22 +30,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwt = null;
-        
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authHeader.substring(7);
+            VerifiedTokenCache.VerifiedToken verified = null;
             try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                logger.error("JWT token validation failed", e);
+                verified = jwtUtil.verify(jwt);
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.debug("JWT token validation failed: " + e.getMessage());
             }
-        }
-        
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt, username)) {
+            
+            // Both claims are required: the user id scopes every problem query to its owner
+            if (verified != null && verified.getUsername() != null && verified.getUserId() != null) {
+                AuthenticatedUser user = new AuthenticatedUser(verified.getUserId(), verified.getUsername());
                 UsernamePasswordAuthenticationToken authToken = 
-                    new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>());
+                    new UsernamePasswordAuthenticationToken(user, null, new ArrayList<>());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -0,0 +1,142 @@
+package com.codetrack.config;
+
+import com.codetrack.util.AuthenticatedUser;
+import com.codetrack.util.TokenBucketLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the API, run right after {@link JwtAuthenticationFilter}. Each request
+ * takes a token from its caller's bucket: the user in the JWT, or the client IP for anonymous
+ * requests and for the auth endpoints (so login attempts are limited per address). Reads,
+ * writes and auth have separate buckets and limits; an empty bucket answers 429 with
+ * Retry-After before any database work is done.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    @Value("${codetrack.rate-limit.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${codetrack.rate-limit.reads.burst:100}")
+    private int readBurst;
+    
+    @Value("${codetrack.rate-limit.reads.per-second:20}")
+    private double readRate;
+    
+    @Value("${codetrack.rate-limit.writes.burst:30}")
+    private int writeBurst;
+    
+    @Value("${codetrack.rate-limit.writes.per-second:5}")
+    private double writeRate;
+    
+    @Value("${codetrack.rate-limit.auth.burst:10}")
+    private int authBurst;
+    
+    @Value("${codetrack.rate-limit.auth.per-second:0.2}")
+    private double authRate;
+    
+    @Value("${codetrack.rate-limit.max-entries:100000}")
+    private int maxEntries;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private TokenBucketLimiter reads;
+    private TokenBucketLimiter writes;
+    private TokenBucketLimiter auth;
+    
+    @PostConstruct
+    void init() {
+        reads = register("reads", new TokenBucketLimiter(readBurst, readRate, maxEntries));
+        writes = register("writes", new TokenBucketLimiter(writeBurst, writeRate, maxEntries));
+        auth = register("auth", new TokenBucketLimiter(authBurst, authRate, maxEntries));
+    }
+    
+    private TokenBucketLimiter register(String endpointClass, TokenBucketLimiter limiter) {
+        Gauge.builder("codetrack.ratelimit.buckets", limiter, TokenBucketLimiter::size)
+                .description("Callers with a bucket")
+                .tag("class", endpointClass)
+                .register(meterRegistry);
+        FunctionCounter.builder("codetrack.ratelimit.rejected", limiter, TokenBucketLimiter::getRejected)
+                .description("Requests answered 429")
+                .tag("class", endpointClass)
+                .register(meterRegistry);
+        FunctionCounter.builder("codetrack.ratelimit.evictions", limiter, TokenBucketLimiter::getEvictions)
+                .description("Buckets dropped to stay under codetrack.rate-limit.max-entries")
+                .tag("class", endpointClass)
+                .register(meterRegistry);
+        return limiter;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !enabled
+                || !uri.startsWith("/api/")
+                || uri.startsWith("/api/health")
+                || "OPTIONS".equals(request.getMethod()); // CORS preflight
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        
+        TokenBucketLimiter limiter;
+        String key;
+        if (request.getRequestURI().startsWith("/api/auth/")) {
+            limiter = auth;
+            key = "ip:" + request.getRemoteAddr();
+        } else {
+            String method = request.getMethod();
+            limiter = "GET".equals(method) || "HEAD".equals(method) ? reads : writes;
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            key = authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user
+                    ? "user:" + user.getId()
+                    : "ip:" + request.getRemoteAddr();
+        }
+        
+        long waitNanos = limiter.tryAcquire(key, System.nanoTime());
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1; // rounded up
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        error.put("error", "Too Many Requests");
+        error.put("message", "Too many requests, try again in " + retryAfterSeconds + "s");
+        
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -18,6 +19,8 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -25,24 +28,37 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+    
     @Value("${security.enabled:true}")
     private boolean securityEnabled;
     
+    @Value("${codetrack.auth.bcrypt-strength:10}")
+    private int bcryptStrength;
+    
     @Value("${spring.web.cors.allowed-origins:http://localhost:3000}")
     private String allowedOrigins;
     
+    // -1 when actuator shares the application port
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+    
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
     
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         if (!securityEnabled) {
-            // Development mode - disable security
+            // Development mode - disable security. Tokens are still read because problems belong
+            // to the user they identify; problem endpoints answer 401 without one.
             http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()));
             return http.build();
         }
@@ -51,26 +67,40 @@ public class SecurityConfig {
         http
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            // Plain path matchers: MVC matchers cannot resolve the dispatcher servlet on the management port
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/auth/**").permitAll() // Allow auth endpoints
-                .requestMatchers("/api/health").permitAll() // Allow health check
-                .requestMatchers("/h2-console/**").permitAll() // Allow H2 console in dev
-                .requestMatchers("/actuator/health").permitAll()
-                .requestMatchers("/api/problems/**").authenticated() // Protect problem APIs
+                .requestMatchers(antMatcher("/api/auth/**")).permitAll() // Allow auth endpoints
+                .requestMatchers(antMatcher("/api/health")).permitAll() // Allow health check
+                .requestMatchers(antMatcher("/h2-console/**")).permitAll() // Allow H2 console in dev
+                .requestMatchers(antMatcher("/actuator/health")).permitAll()
+                .requestMatchers(prometheusOnManagementPort()).permitAll() // Scraped without a token, see below
+                .requestMatchers(antMatcher("/api/problems/**")).authenticated() // Protect problem APIs
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class) // Limits per user once the token is known
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .headers(headers -> headers.frameOptions().disable()); // For H2 console
         
         return http.build();
     }
     
+    /**
+     * The Prometheus endpoint is open only on a separate management port, which the prod profile
+     * binds to a private address the scraper reaches (management.server.address). Served on the
+     * application port it needs a token like any other endpoint.
+     */
+    private RequestMatcher prometheusOnManagementPort() {
+        return request -> managementPort > 0
+                && request.getLocalPort() == managementPort
+                && "/actuator/prometheus".equals(request.getRequestURI());
+    }
+    
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList(allowedOrigins.split(",")));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
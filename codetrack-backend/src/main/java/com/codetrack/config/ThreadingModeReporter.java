@@ -0,0 +1,34 @@
+package com.codetrack.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs which threads serve requests, so a "virtual" deployment on a pre-21 runtime
+ * (where Spring silently keeps platform threads) is visible in the startup log.
+ */
+@Component
+public class ThreadingModeReporter {
+    
+    private static final Logger log = LoggerFactory.getLogger(ThreadingModeReporter.class);
+    
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        int javaVersion = Runtime.version().feature();
+        if (!virtualThreads) {
+            log.info("Serving requests on platform threads (Java {})", javaVersion);
+        } else if (javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                    + "serving requests on platform threads", javaVersion);
+        } else {
+            log.info("Serving requests on virtual threads (Java {})", javaVersion);
+        }
+    }
+}
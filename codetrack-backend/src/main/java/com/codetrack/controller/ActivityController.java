@@ -0,0 +1,35 @@
+package com.codetrack.controller;
+
+import com.codetrack.dto.ActivityDTO;
+import com.codetrack.dto.StreakDTO;
+import com.codetrack.service.ActivityService;
+import com.codetrack.util.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/activity")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
+public class ActivityController {
+    
+    @Autowired
+    private ActivityService activityService;
+    
+    @GetMapping
+    public ResponseEntity<ActivityDTO> getActivity(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        ActivityDTO activity = activityService.getActivity(AuthenticatedUser.currentId(), from, to);
+        return ResponseEntity.ok(activity);
+    }
+    
+    @GetMapping("/streak")
+    public ResponseEntity<StreakDTO> getStreaks() {
+        StreakDTO streaks = activityService.getStreaks(AuthenticatedUser.currentId());
+        return ResponseEntity.ok(streaks);
+    }
+}
@@ -3,12 +3,17 @@ package com.codetrack.controller;
 import com.codetrack.dto.AuthResponse;
 import com.codetrack.dto.LoginRequest;
 import com.codetrack.dto.RegisterRequest;
+import com.codetrack.exception.ServiceBusyException;
 import com.codetrack.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
@@ -17,26 +22,37 @@ public class AuthController {
     @Autowired
     private AuthService authService;
     
+    // Hashing runs on a separate bounded pool; the servlet thread is released while it does
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody RegisterRequest request) {
         try {
-            AuthResponse response = authService.register(request);
-            return ResponseEntity.ok(response);
+            return authService.register(request)
+                    .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                    .exceptionally(e -> errorResponse(e, HttpStatus.BAD_REQUEST));
         } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse(e.getMessage()));
+            return CompletableFuture.completedFuture(errorResponse(e, HttpStatus.BAD_REQUEST));
         }
     }
     
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request) {
         try {
-            AuthResponse response = authService.login(request);
-            return ResponseEntity.ok(response);
+            return authService.login(request)
+                    .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                    .exceptionally(e -> errorResponse(e, HttpStatus.UNAUTHORIZED));
         } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new ErrorResponse(e.getMessage()));
+            return CompletableFuture.completedFuture(errorResponse(e, HttpStatus.UNAUTHORIZED));
+        }
+    }
+    
+    private static ResponseEntity<?> errorResponse(Throwable e, HttpStatus status) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof ServiceBusyException busy) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(busy.getRetryAfterSeconds()))
+                    .body(new ErrorResponse(busy.getMessage()));
         }
+        return ResponseEntity.status(status).body(new ErrorResponse(cause.getMessage()));
     }
     
     private static class ErrorResponse {
@@ -1,5 +1,10 @@
 package com.codetrack.controller;
 
+import com.codetrack.service.EntityCacheService;
+import com.codetrack.service.PasswordHashingService;
+import com.codetrack.util.JwtUtil;
+import com.codetrack.util.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -12,6 +17,15 @@ import java.util.Map;
 @RequestMapping("/api")
 public class HealthController {
     
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    
+    @Autowired
+    private EntityCacheService entityCacheService;
+    
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
         Map<String, Object> health = new HashMap<>();
@@ -20,5 +34,29 @@ public class HealthController {
         health.put("timestamp", System.currentTimeMillis());
         return ResponseEntity.ok(health);
     }
+    
+    @GetMapping("/health/jwt-cache")
+    public ResponseEntity<Map<String, Object>> jwtCache() {
+        VerifiedTokenCache cache = jwtUtil.getCache();
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", cache.size());
+        stats.put("maxEntries", cache.getMaxEntries());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", cache.getEvictions());
+        stats.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return ResponseEntity.ok(stats);
+    }
+    
+    @GetMapping("/health/password-hashing")
+    public ResponseEntity<Map<String, Object>> passwordHashing() {
+        return ResponseEntity.ok(passwordHashingService.getStats());
+    }
+    
+    @GetMapping("/health/entity-cache")
+    public ResponseEntity<Map<String, Object>> entityCache() {
+        return ResponseEntity.ok(entityCacheService.getStats());
+    }
 }
-
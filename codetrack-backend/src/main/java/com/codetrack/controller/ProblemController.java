@@ -1,34 +1,187 @@
 package com.codetrack.controller;
 
+import com.codetrack.dto.ApproachDTO;
+import com.codetrack.dto.BulkRevisionItemDTO;
+import com.codetrack.dto.BulkRevisionResultDTO;
+import com.codetrack.dto.ProblemChangesDTO;
+import com.codetrack.dto.ImportResultDTO;
 import com.codetrack.dto.ProblemDTO;
+import com.codetrack.dto.ProblemPageDTO;
+import com.codetrack.dto.ProblemSearchResultDTO;
+import com.codetrack.dto.ProblemStatsDTO;
 import com.codetrack.dto.RevisionDTO;
+import com.codetrack.service.DataVersionService;
+import com.codetrack.service.ProblemImportService;
 import com.codetrack.service.ProblemService;
+import com.codetrack.util.AuthenticatedUser;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/problems")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"})
 public class ProblemController {
     
+    // Browsers keep the response but revalidate it with If-None-Match every time
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
     @Autowired
     private ProblemService problemService;
     
+    @Autowired
+    private ProblemImportService problemImportService;
+    
+    @Autowired
+    private DataVersionService dataVersionService;
+    
+    /**
+     * Without {@code limit} or {@code cursor} this returns the full list (compatibility mode).
+     * Otherwise it returns one keyset page; pass {@code nextCursor} back to get the next one.
+     * Answers 304 without touching the database when If-None-Match carries the current data version.
+     */
     @GetMapping
-    public ResponseEntity<List<ProblemDTO>> getAllProblems() {
-        List<ProblemDTO> problems = problemService.getAllProblems();
+    public ResponseEntity<?> getAllProblems(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            WebRequest request) {
+        Long ownerId = AuthenticatedUser.currentId();
+        if (request.checkNotModified(dataVersionService.currentTag(ownerId))) {
+            return null;
+        }
+        if (limit == null && cursor == null) {
+            List<ProblemDTO> problems = problemService.getAllProblems(ownerId);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(problems);
+        }
+        ProblemPageDTO page = problemService.getProblemsPage(ownerId, sort, cursor, limit);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(page);
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<ProblemSearchResultDTO> searchProblems(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            WebRequest request) {
+        Long ownerId = AuthenticatedUser.currentId();
+        if (request.checkNotModified(dataVersionService.currentTag(ownerId))) {
+            return null;
+        }
+        ProblemSearchResultDTO result = problemService.searchProblems(ownerId, q, page, size);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(result);
+    }
+    
+    @GetMapping("/stats")
+    public ResponseEntity<ProblemStatsDTO> getStatistics(
+            @RequestParam(required = false) String difficulty,
+            @RequestParam(required = false) String pattern,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String tag) {
+        ProblemStatsDTO stats = problemService.getStatistics(AuthenticatedUser.currentId(), difficulty, pattern, priority, tag);
+        return ResponseEntity.ok(stats);
+    }
+    
+    /**
+     * Delta sync: problems created, updated or deleted since the given change version.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ProblemChangesDTO> getChanges(@RequestParam(defaultValue = "0") Long since) {
+        ProblemChangesDTO changes = problemService.getChanges(AuthenticatedUser.currentId(), since);
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(changes);
+    }
+    
+    @GetMapping("/due")
+    public ResponseEntity<List<ProblemDTO>> getDueProblems(@RequestParam(required = false) Integer limit) {
+        List<ProblemDTO> problems = problemService.getDueProblems(AuthenticatedUser.currentId(), limit);
         return ResponseEntity.ok(problems);
     }
     
+    /**
+     * Streams all problems as newline-delimited JSON, gzip-compressed when the client accepts it.
+     */
+    @GetMapping("/export")
+    public void exportProblems(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        Long ownerId = AuthenticatedUser.currentId();
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"codetrack-problems.ndjson\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192, true);
+            problemService.exportProblems(ownerId, gzipOut);
+            gzipOut.finish();
+        } else {
+            problemService.exportProblems(ownerId, out);
+        }
+        out.flush();
+    }
+    
+    /**
+     * Imports problems from a JSON array, a {"problems": [...], "merge": bool} object or NDJSON
+     * (Content-Type application/x-ndjson). The body may be gzip-compressed (Content-Encoding: gzip).
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ImportResultDTO> importProblems(
+            @RequestParam(required = false) Boolean merge,
+            HttpServletRequest request) throws IOException {
+        String contentType = request.getContentType();
+        boolean ndjson = contentType != null && contentType.startsWith("application/x-ndjson");
+        
+        InputStream in = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            in = new GZIPInputStream(in, 8192);
+        }
+        ImportResultDTO result = problemImportService.importProblems(AuthenticatedUser.currentId(), in, ndjson, merge);
+        return ResponseEntity.ok(result);
+    }
+    
     @GetMapping("/{id}")
-    public ResponseEntity<ProblemDTO> getProblemById(@PathVariable Long id) {
+    public ResponseEntity<ProblemDTO> getProblemById(@PathVariable Long id, WebRequest request) {
+        Long ownerId = AuthenticatedUser.currentId();
+        if (request.checkNotModified(dataVersionService.currentTag(ownerId))) {
+            return null;
+        }
         try {
-            ProblemDTO problem = problemService.getProblemById(id);
-            return ResponseEntity.ok(problem);
+            ProblemDTO problem = problemService.getProblemById(ownerId, id);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(problem);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/{id}/approaches")
+    public ResponseEntity<List<ApproachDTO>> getApproaches(@PathVariable Long id, WebRequest request) {
+        Long ownerId = AuthenticatedUser.currentId();
+        if (request.checkNotModified(dataVersionService.currentTag(ownerId))) {
+            return null;
+        }
+        try {
+            List<ApproachDTO> approaches = problemService.getApproaches(ownerId, id);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(approaches);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -36,8 +189,9 @@ public class ProblemController {
     
     @PostMapping
     public ResponseEntity<ProblemDTO> createProblem(@RequestBody ProblemDTO problemDTO) {
+        Long ownerId = AuthenticatedUser.currentId();
         try {
-            ProblemDTO created = problemService.createProblem(problemDTO);
+            ProblemDTO created = problemService.createProblem(ownerId, problemDTO);
             return ResponseEntity.status(HttpStatus.CREATED).body(created);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
@@ -48,21 +202,35 @@ public class ProblemController {
     public ResponseEntity<ProblemDTO> updateProblem(
             @PathVariable Long id,
             @RequestBody ProblemDTO problemDTO) {
+        Long ownerId = AuthenticatedUser.currentId();
         try {
-            ProblemDTO updated = problemService.updateProblem(id, problemDTO);
+            ProblemDTO updated = problemService.updateProblem(ownerId, id, problemDTO);
             return ResponseEntity.ok(updated);
+        } catch (IllegalArgumentException e) {
+            throw e; // title, pattern or difficulty missing: 400
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    /**
+     * Partial update: only the fields present in the body change (JSON merge patch semantics).
+     * Unknown or read-only fields are rejected with 400, a missing problem is 404.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<ProblemDTO> patchProblem(@PathVariable Long id, @RequestBody JsonNode patch) {
+        ProblemDTO updated = problemService.patchProblem(AuthenticatedUser.currentId(), id, patch);
+        return ResponseEntity.ok(updated);
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProblem(@PathVariable Long id) {
+        Long ownerId = AuthenticatedUser.currentId();
         try {
-            problemService.deleteProblem(id);
+            problemService.deleteProblem(ownerId, id);
             return ResponseEntity.noContent().build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
         }
     }
     
@@ -70,12 +238,21 @@ public class ProblemController {
     public ResponseEntity<ProblemDTO> markRevision(
             @PathVariable Long id,
             @RequestBody RevisionDTO revisionDTO) {
+        Long ownerId = AuthenticatedUser.currentId();
         try {
-            ProblemDTO updated = problemService.markRevision(id, revisionDTO);
+            ProblemDTO updated = problemService.markRevision(ownerId, id, revisionDTO);
             return ResponseEntity.ok(updated);
+        } catch (IllegalArgumentException e) {
+            throw e; // invalid date or rating: 400
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
+    
+    @PostMapping("/revisions")
+    public ResponseEntity<List<BulkRevisionResultDTO>> markRevisions(@RequestBody List<BulkRevisionItemDTO> items) {
+        List<BulkRevisionResultDTO> results = problemService.markRevisions(AuthenticatedUser.currentId(), items);
+        return ResponseEntity.ok(results);
+    }
 }
 
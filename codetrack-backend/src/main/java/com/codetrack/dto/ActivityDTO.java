@@ -0,0 +1,21 @@
+package com.codetrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private int currentStreak;
+    private int longestStreak;
+    private int activeDays;
+    private List<ActivityDayDTO> days = new ArrayList<>(); // active days only, oldest first
+}
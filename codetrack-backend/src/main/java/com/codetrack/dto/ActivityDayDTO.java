@@ -0,0 +1,17 @@
+package com.codetrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityDayDTO {
+    private LocalDate date;
+    private int count; // problems solved or revised that day
+    private int timeSpent; // minutes
+    private double averageRating; // 0.0 when nothing was rated
+}
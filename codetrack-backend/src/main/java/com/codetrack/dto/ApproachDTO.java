@@ -0,0 +1,7 @@
+package com.codetrack.dto;
+
+/**
+ * One solution approach in {@link ProblemDTO#getApproaches()}: {@code {"notes": "...", "code": "..."}}.
+ */
+public record ApproachDTO(String notes, String code) {
+}
@@ -0,0 +1,13 @@
+package com.codetrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRevisionItemDTO {
+    private Long problemId;
+    private RevisionDTO revision; // optional, defaults to "revised now" without time or rating
+}
@@ -0,0 +1,16 @@
+package com.codetrack.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkRevisionResultDTO {
+    private Long problemId;
+    private boolean success;
+    private String error; // only set when success is false
+}
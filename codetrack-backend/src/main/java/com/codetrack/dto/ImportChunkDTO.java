@@ -0,0 +1,19 @@
+package com.codetrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportChunkDTO {
+    private int chunk;
+    private int imported;
+    private int duplicates;
+    private int failed;
+    private List<String> errors = new ArrayList<>(); // "#<index>: <reason>", index is 0-based in the payload
+}
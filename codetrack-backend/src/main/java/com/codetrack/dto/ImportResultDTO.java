@@ -0,0 +1,20 @@
+package com.codetrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDTO {
+    private boolean merge;
+    private int imported;
+    private int duplicates;
+    private int failed;
+    private int removed; // pre-existing problems deleted when merge is false
+    private List<ImportChunkDTO> chunks = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.codetrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProblemChangesDTO {
+    private long since;
+    private long version; // pass back as ?since= on the next call
+    private boolean full; // changed holds every problem; drop anything not in it
+    private List<ProblemDTO> changed;
+    private List<Long> deleted;
+}
@@ -7,7 +7,6 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -25,10 +24,11 @@ public class ProblemDTO {
     private Integer revisionInterval;
     private Integer revisionCount;
     private LocalDateTime lastRevised;
+    private LocalDateTime nextRevisionDue;
     private LocalDateTime createdAt;
     private Integer totalTimeSpent;
     private Double averageRating;
-    private List<Map<String, Object>> solvedDates = new ArrayList<>();
-    private List<Map<String, String>> approaches = new ArrayList<>();
+    private List<SolvedDateDTO> solvedDates = new ArrayList<>();
+    private List<ApproachDTO> approaches = new ArrayList<>();
 }
 
@@ -0,0 +1,17 @@
+package com.codetrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProblemPageDTO {
+    private List<ProblemSummaryDTO> items = new ArrayList<>();
+    private String nextCursor; // null when there are no more pages
+    private boolean hasMore;
+}
@@ -0,0 +1,19 @@
+package com.codetrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProblemSearchResultDTO {
+    private String query;
+    private int total; // matches across all pages
+    private int page; // 0-based
+    private int size;
+    private List<ProblemSummaryDTO> items = new ArrayList<>(); // best match first
+}
@@ -0,0 +1,23 @@
+package com.codetrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProblemStatsDTO {
+    private long total;
+    private long needsRevision; // nextRevisionDue is in the past
+    private long totalTimeSpent; // minutes
+    private double averageTimeSpent; // minutes per problem
+    private double averageRating; // over all rated revisions
+    private Map<String, Long> byDifficulty = new LinkedHashMap<>();
+    private Map<String, Long> byPattern = new LinkedHashMap<>();
+    private Map<String, Long> byPriority = new LinkedHashMap<>();
+    private Map<String, Long> byTag = new LinkedHashMap<>();
+}
@@ -0,0 +1,52 @@
+package com.codetrack.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List and search view of a problem: metadata only, no notes, approaches or revision history.
+ * Filled by a JPQL constructor expression (ProblemRepository.SUMMARY) plus one query for the tags.
+ */
+@Data
+@NoArgsConstructor
+public class ProblemSummaryDTO {
+    private Long id;
+    private String title;
+    private String pattern;
+    private String difficulty;
+    private String platform;
+    private String link;
+    private List<String> tags = new ArrayList<>();
+    private String priority;
+    private Integer revisionInterval;
+    private Integer revisionCount;
+    private LocalDateTime lastRevised;
+    private LocalDateTime nextRevisionDue;
+    private LocalDateTime createdAt;
+    private Integer totalTimeSpent;
+    private Double averageRating;
+    
+    public ProblemSummaryDTO(Long id, String title, String pattern, String difficulty, String platform, String link,
+                             String priority, Integer revisionInterval, Integer revisionCount,
+                             LocalDateTime lastRevised, LocalDateTime nextRevisionDue, LocalDateTime createdAt,
+                             Integer totalTimeSpent, Double averageRating) {
+        this.id = id;
+        this.title = title;
+        this.pattern = pattern;
+        this.difficulty = difficulty;
+        this.platform = platform;
+        this.link = link;
+        this.priority = priority;
+        this.revisionInterval = revisionInterval;
+        this.revisionCount = revisionCount;
+        this.lastRevised = lastRevised;
+        this.nextRevisionDue = nextRevisionDue;
+        this.createdAt = createdAt;
+        this.totalTimeSpent = totalTimeSpent;
+        this.averageRating = averageRating;
+    }
+}
@@ -0,0 +1,17 @@
+package com.codetrack.dto;
+
+import com.codetrack.util.LenientLocalDateTimeDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.time.LocalDateTime;
+
+/**
+ * One solve or revision in {@link ProblemDTO#getSolvedDates()}.
+ * Serialized as {@code {"date": "...", "timeSpent": 25, "rating": 4}}; responses use 0 for
+ * a missing time or rating.
+ */
+public record SolvedDateDTO(
+        @JsonDeserialize(using = LenientLocalDateTimeDeserializer.class) LocalDateTime date,
+        Integer timeSpent,
+        Integer rating) {
+}
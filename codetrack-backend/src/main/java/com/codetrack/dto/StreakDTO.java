@@ -0,0 +1,14 @@
+package com.codetrack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreakDTO {
+    private int currentStreak;
+    private int longestStreak;
+    private int activeDays;
+}
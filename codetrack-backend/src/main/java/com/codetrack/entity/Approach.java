@@ -1,6 +1,8 @@
 package com.codetrack.entity;
 
+import com.codetrack.util.CompressedTextConverter;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Embeddable;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,9 +15,11 @@ import lombok.NoArgsConstructor;
 public class Approach {
     
     @Column(columnDefinition = "TEXT")
+    @Convert(converter = CompressedTextConverter.class)
     private String notes;
     
     @Column(columnDefinition = "TEXT")
+    @Convert(converter = CompressedTextConverter.class)
     private String code;
 }
 
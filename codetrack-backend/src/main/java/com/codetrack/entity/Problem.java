@@ -1,25 +1,51 @@
 package com.codetrack.entity;
 
+import com.codetrack.util.CompressedTextConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "problems")
+// Every query is scoped to one owner, so every index leads with owner_id
+@Table(name = "problems", indexes = {
+    @Index(name = "idx_problems_owner_created_at", columnList = "ownerId, createdAt, id"),
+    @Index(name = "idx_problems_owner_next_revision_due", columnList = "ownerId, nextRevisionDue, id"),
+    @Index(name = "idx_problems_owner_change_version", columnList = "ownerId, changeVersion, id"),
+    @Index(name = "idx_problems_owner_last_activity_at", columnList = "ownerId, lastActivityAt, id"),
+    @Index(name = "idx_problems_owner_priority_rank", columnList = "ownerId, priorityRank, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Problem.CACHE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Problem {
     
+    // Second-level cache regions, sized in EntityCacheConfig
+    public static final String CACHE_REGION = "problems";
+    public static final String TAGS_CACHE_REGION = "problems.tags";
+    public static final String APPROACHES_CACHE_REGION = "problems.approaches";
+    public static final String SOLVED_DATES_CACHE_REGION = "problems.solvedDates";
+    
+    // Position of a row in problem_tags / problem_approaches. The default lets the column be added to
+    // tables with existing rows; CollectionIndexBackfill then numbers those rows properly.
+    public static final String LIST_INDEX_COLUMN = "list_index";
+    static final String LIST_INDEX_DEFINITION = "integer default 0";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    private Long ownerId; // users.id of the owner; NULL only for rows ProblemOwnerBackfill could not assign
+    
     @Column(nullable = false)
     private String title;
     
@@ -34,33 +60,61 @@ public class Problem {
     private String link;
     
     @Column(columnDefinition = "TEXT")
+    @Convert(converter = CompressedTextConverter.class)
     private String notes;
     
     @ElementCollection
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TAGS_CACHE_REGION)
     @CollectionTable(name = "problem_tags", joinColumns = @JoinColumn(name = "problem_id"))
+    @OrderColumn(name = LIST_INDEX_COLUMN, columnDefinition = LIST_INDEX_DEFINITION) // edits touch single rows
     @Column(name = "tag")
     private List<String> tags = new ArrayList<>();
     
     private String priority; // Low, Medium, High, Critical
     
+    private Integer priorityRank; // sort key derived from priority, see ProblemService.priorityRank
+    
     private Integer revisionInterval = 7; // days
     
     private Integer revisionCount = 0;
     
     private LocalDateTime lastRevised;
     
+    private LocalDateTime nextRevisionDue; // (lastRevised or createdAt) + revisionInterval days
+    
+    private LocalDateTime lastActivityAt; // sort key: lastRevised, or createdAt until the first revision
+    
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
     private Integer totalTimeSpent = 0;
     
-    private Double averageRating = 0.0;
+    private Double averageRating = 0.0; // derived from ratingSum / ratingCount
+    
+    // Running rating aggregates, updated per revision so the history never has to be re-read
+    private Integer ratingSum = 0;
+    
+    private Integer ratingCount = 0;
+    
+    private Integer minRating;
+    
+    private Integer maxRating;
+    
+    private Integer lastRating;
+    
+    private Long changeVersion; // version of the transaction that last wrote the row, see ChangeVersionService
     
     @OneToMany(mappedBy = "problem", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SOLVED_DATES_CACHE_REGION)
     private List<SolvedDate> solvedDates = new ArrayList<>();
     
     @ElementCollection
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = APPROACHES_CACHE_REGION)
     @CollectionTable(name = "problem_approaches", joinColumns = @JoinColumn(name = "problem_id"))
+    @OrderColumn(name = LIST_INDEX_COLUMN, columnDefinition = LIST_INDEX_DEFINITION)
     private List<Approach> approaches = new ArrayList<>();
 }
 
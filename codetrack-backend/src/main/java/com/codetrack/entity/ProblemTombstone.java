@@ -0,0 +1,34 @@
+package com.codetrack.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker left behind by a deleted problem so delta-sync clients learn about the deletion.
+ * Tombstones are kept indefinitely (one small row per deleted problem): pruning them would need
+ * a persisted floor version below which clients are sent a full sync instead of a delta.
+ */
+@Entity
+@Table(name = "problem_tombstones", indexes = {
+    @Index(name = "idx_problem_tombstones_owner_change_version", columnList = "ownerId, changeVersion, problemId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProblemTombstone {
+    
+    @Id
+    private Long problemId;
+    
+    private Long ownerId;
+    
+    @Column(nullable = false)
+    private Long changeVersion;
+    
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -4,16 +4,24 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "solved_dates")
+@Table(name = "solved_dates", indexes = {
+    @Index(name = "idx_solved_dates_problem_id", columnList = "problem_id") // not created implicitly on PostgreSQL
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SolvedDate.CACHE_REGION)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class SolvedDate {
     
+    public static final String CACHE_REGION = "solvedDates";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
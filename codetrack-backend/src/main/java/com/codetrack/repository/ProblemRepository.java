@@ -1,25 +1,169 @@
 package com.codetrack.repository;
 
+import com.codetrack.dto.ProblemSummaryDTO;
 import com.codetrack.entity.Problem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProblemRepository extends JpaRepository<Problem, Long> {
     
-    List<Problem> findByTitleContainingIgnoreCase(String title);
+    // Every query takes the owner first and filters on it first, so it is served from one of the
+    // owner-leading indexes on problems and its cost depends only on that owner's problems.
     
-    List<Problem> findByPattern(String pattern);
+    List<Problem> findByOwnerIdAndTitleContainingIgnoreCase(Long ownerId, String title);
     
-    List<Problem> findByDifficulty(String difficulty);
+    List<Problem> findByOwnerIdAndPattern(Long ownerId, String pattern);
     
-    @Query("SELECT p FROM Problem p WHERE p.lastRevised IS NULL OR p.lastRevised < :cutoffDate")
-    List<Problem> findProblemsNeedingRevision(LocalDateTime cutoffDate);
+    List<Problem> findByOwnerIdAndDifficulty(Long ownerId, String difficulty);
     
-    List<Problem> findByTagsContaining(String tag);
+    @Query("SELECT p FROM Problem p WHERE p.ownerId = :ownerId AND (p.lastRevised IS NULL OR p.lastRevised < :cutoffDate)")
+    List<Problem> findProblemsNeedingRevision(@Param("ownerId") Long ownerId, @Param("cutoffDate") LocalDateTime cutoffDate);
+    
+    List<Problem> findByOwnerIdAndTagsContaining(Long ownerId, String tag);
+    
+    boolean existsByIdAndOwnerId(Long id, Long ownerId);
+    
+    @Query("SELECT p FROM Problem p WHERE p.ownerId = :ownerId ORDER BY p.id")
+    List<Problem> findAllByOwner(@Param("ownerId") Long ownerId);
+    
+    // Rows of {id, revisionInterval} for the given ids that exist and belong to the owner
+    @Query("SELECT p.id, p.revisionInterval FROM Problem p WHERE p.ownerId = :ownerId AND p.id IN :ids")
+    List<Object[]> findRevisionIntervals(@Param("ownerId") Long ownerId, @Param("ids") Collection<Long> ids);
+    
+    // Most overdue first, served from idx_problems_owner_next_revision_due
+    @Query("SELECT p FROM Problem p WHERE p.ownerId = :ownerId AND p.nextRevisionDue <= :now " +
+           "ORDER BY p.nextRevisionDue ASC, p.id ASC")
+    List<Problem> findDue(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Delta sync, served from idx_problems_owner_change_version
+    @Query("SELECT p FROM Problem p WHERE p.ownerId = :ownerId AND p.changeVersion > :since AND p.changeVersion <= :upTo " +
+           "ORDER BY p.changeVersion ASC, p.id ASC")
+    List<Problem> findChangedBetween(@Param("ownerId") Long ownerId, @Param("since") long since, @Param("upTo") long upTo);
+    
+    // Summaries: metadata columns only, never notes or the approach/revision tables
+    
+    @Query("SELECT " + SUMMARY + " FROM Problem p WHERE p.ownerId = :ownerId AND p.id IN :ids")
+    List<ProblemSummaryDTO> findSummariesByIds(@Param("ownerId") Long ownerId, @Param("ids") Collection<Long> ids);
+    
+    // Rows of {problemId, tag} in list order
+    @Query("SELECT p.id, t FROM Problem p JOIN p.tags t WHERE p.ownerId = :ownerId AND p.id IN :ids ORDER BY p.id, INDEX(t)")
+    List<Object[]> findTagsByIds(@Param("ownerId") Long ownerId, @Param("ids") Collection<Long> ids);
+    
+    // Keyset pagination over summaries: newest first, (createdAt, id) descending, served from
+    // idx_problems_owner_created_at
+    
+    @Query("SELECT " + SUMMARY + " FROM Problem p WHERE p.ownerId = :ownerId ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProblemSummaryDTO> findPageByCreatedAt(@Param("ownerId") Long ownerId, Pageable pageable);
+    
+    @Query("SELECT " + SUMMARY + " FROM Problem p WHERE p.ownerId = :ownerId " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProblemSummaryDTO> findPageByCreatedAtAfter(@Param("ownerId") Long ownerId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+    
+    // Keyset pagination: least recently revised first, never-revised problems fall back to createdAt.
+    // Served from idx_problems_owner_last_activity_at
+    
+    @Query("SELECT " + SUMMARY + " FROM Problem p WHERE p.ownerId = :ownerId " +
+           "ORDER BY p.lastActivityAt ASC, p.id ASC")
+    List<ProblemSummaryDTO> findPageByLastRevised(@Param("ownerId") Long ownerId, Pageable pageable);
+    
+    @Query("SELECT " + SUMMARY + " FROM Problem p WHERE p.ownerId = :ownerId " +
+           "AND (p.lastActivityAt > :lastRevised OR (p.lastActivityAt = :lastRevised AND p.id > :id)) " +
+           "ORDER BY p.lastActivityAt ASC, p.id ASC")
+    List<ProblemSummaryDTO> findPageByLastRevisedAfter(@Param("ownerId") Long ownerId,
+                                             @Param("lastRevised") LocalDateTime lastRevised,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+    
+    // Keyset pagination: highest priority first (Critical > High > Medium > Low > unset), served from
+    // idx_problems_owner_priority_rank
+    
+    @Query("SELECT " + SUMMARY + " FROM Problem p WHERE p.ownerId = :ownerId ORDER BY p.priorityRank DESC, p.id DESC")
+    List<ProblemSummaryDTO> findPageByPriority(@Param("ownerId") Long ownerId, Pageable pageable);
+    
+    @Query("SELECT " + SUMMARY + " FROM Problem p WHERE p.ownerId = :ownerId " +
+           "AND (p.priorityRank < :rank OR (p.priorityRank = :rank AND p.id < :id)) " +
+           "ORDER BY p.priorityRank DESC, p.id DESC")
+    List<ProblemSummaryDTO> findPageByPriorityAfter(@Param("ownerId") Long ownerId,
+                                          @Param("rank") Integer rank,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+    
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Problem p WHERE p.ownerId = :ownerId ORDER BY p.id")
+    Stream<Problem> streamAllForExport(@Param("ownerId") Long ownerId);
+    
+    // Aggregates for GET /api/problems/stats; every filter but the owner is optional (null = no filter)
+    
+    @Query("SELECT COUNT(p), SUM(p.totalTimeSpent), SUM(p.ratingSum), SUM(p.ratingCount), " +
+           "SUM(CASE WHEN p.nextRevisionDue <= :now THEN 1 ELSE 0 END) " +
+           "FROM Problem p WHERE " + STATS_FILTER)
+    List<Object[]> statsTotals(@Param("ownerId") Long ownerId,
+                               @Param("now") LocalDateTime now,
+                               @Param("difficulty") String difficulty,
+                               @Param("pattern") String pattern,
+                               @Param("priority") String priority,
+                               @Param("tag") String tag);
+    
+    @Query("SELECT p.difficulty, COUNT(p) FROM Problem p WHERE " + STATS_FILTER +
+           " GROUP BY p.difficulty ORDER BY COUNT(p) DESC")
+    List<Object[]> countByDifficulty(@Param("ownerId") Long ownerId,
+                                     @Param("difficulty") String difficulty,
+                                     @Param("pattern") String pattern,
+                                     @Param("priority") String priority,
+                                     @Param("tag") String tag);
+    
+    @Query("SELECT p.pattern, COUNT(p) FROM Problem p WHERE " + STATS_FILTER +
+           " GROUP BY p.pattern ORDER BY COUNT(p) DESC")
+    List<Object[]> countByPattern(@Param("ownerId") Long ownerId,
+                                  @Param("difficulty") String difficulty,
+                                  @Param("pattern") String pattern,
+                                  @Param("priority") String priority,
+                                  @Param("tag") String tag);
+    
+    @Query("SELECT p.priority, COUNT(p) FROM Problem p WHERE " + STATS_FILTER +
+           " GROUP BY p.priority ORDER BY COUNT(p) DESC")
+    List<Object[]> countByPriority(@Param("ownerId") Long ownerId,
+                                   @Param("difficulty") String difficulty,
+                                   @Param("pattern") String pattern,
+                                   @Param("priority") String priority,
+                                   @Param("tag") String tag);
+    
+    @Query("SELECT t, COUNT(p) FROM Problem p JOIN p.tags t WHERE " + STATS_FILTER +
+           " GROUP BY t ORDER BY COUNT(p) DESC")
+    List<Object[]> countByTag(@Param("ownerId") Long ownerId,
+                              @Param("difficulty") String difficulty,
+                              @Param("pattern") String pattern,
+                              @Param("priority") String priority,
+                              @Param("tag") String tag);
+    
+    String STATS_FILTER = "p.ownerId = :ownerId " +
+                          "AND (:difficulty IS NULL OR p.difficulty = :difficulty) " +
+                          "AND (:pattern IS NULL OR p.pattern = :pattern) " +
+                          "AND (:priority IS NULL OR p.priority = :priority) " +
+                          "AND (:tag IS NULL OR :tag MEMBER OF p.tags)";
+    
+    String SUMMARY = "new com.codetrack.dto.ProblemSummaryDTO(p.id, p.title, p.pattern, p.difficulty, " +
+                     "p.platform, p.link, p.priority, p.revisionInterval, p.revisionCount, p.lastRevised, " +
+                     "p.nextRevisionDue, p.createdAt, p.totalTimeSpent, p.averageRating)";
 }
-
@@ -0,0 +1,18 @@
+package com.codetrack.repository;
+
+import com.codetrack.entity.ProblemTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProblemTombstoneRepository extends JpaRepository<ProblemTombstone, Long> {
+    
+    // Served from idx_problem_tombstones_owner_change_version
+    @Query("SELECT t.problemId FROM ProblemTombstone t WHERE t.ownerId = :ownerId " +
+           "AND t.changeVersion > :since AND t.changeVersion <= :upTo ORDER BY t.changeVersion, t.problemId")
+    List<Long> findDeletedIds(@Param("ownerId") Long ownerId, @Param("since") long since, @Param("upTo") long upTo);
+}
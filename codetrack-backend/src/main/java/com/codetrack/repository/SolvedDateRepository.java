@@ -0,0 +1,9 @@
+package com.codetrack.repository;
+
+import com.codetrack.entity.SolvedDate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SolvedDateRepository extends JpaRepository<SolvedDate, Long> {
+}
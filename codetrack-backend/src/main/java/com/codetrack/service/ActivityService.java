@@ -0,0 +1,246 @@
+package com.codetrack.service;
+
+import com.codetrack.dto.ActivityDTO;
+import com.codetrack.dto.ActivityDayDTO;
+import com.codetrack.dto.StreakDTO;
+import com.codetrack.util.DayActivityIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static com.codetrack.util.TransactionUtil.afterCommit;
+import static com.codetrack.util.TransactionUtil.afterCompletion;
+
+/**
+ * Streaks and the calendar heatmap, answered from an in-memory {@link DayActivityIndex} per
+ * problem owner instead of scanning solved_dates. The indexes are rebuilt with one GROUP BY on
+ * startup and then kept current by the ProblemService write paths; updates are applied after
+ * commit so rolled-back revisions never show up.
+ * <p>
+ * Updates are deltas, so a rebuild cannot simply replay the ones that land while it reads: the
+ * read may already include them. Instead an owner whose load overlapped one of their writes,
+ * in flight or applied, is loaded again.
+ */
+@Service
+public class ActivityService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ActivityService.class);
+    
+    private static final int DEFAULT_RANGE_DAYS = 365;
+    
+    private static final String DAILY_TOTALS =
+            "SELECT p.owner_id, CAST(sd.date AS DATE), COUNT(*), COALESCE(SUM(sd.time_spent), 0), " +
+            "COALESCE(SUM(sd.rating), 0), COUNT(sd.rating) FROM solved_dates sd JOIN problems p ON p.id = sd.problem_id ";
+    
+    private static final String GROUP_BY_OWNER_AND_DAY = " GROUP BY p.owner_id, CAST(sd.date AS DATE)";
+    
+    private static final int MAX_REBUILD_ATTEMPTS = 5;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private final ConcurrentHashMap<Long, DayActivityIndex> indexes = new ConcurrentHashMap<>();
+    
+    // Guarded by this, like every swap of an index and every update applied to one
+    private final Map<Long, Writes> writes = new HashMap<>();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, Writes> before = snapshotWrites();
+        Map<Long, DayActivityIndex> rebuilt = new HashMap<>();
+        int[] skipped = {0};
+        jdbcTemplate.query(DAILY_TOTALS + "WHERE p.owner_id IS NOT NULL" + GROUP_BY_OWNER_AND_DAY, rs -> {
+            if (!rebuilt.computeIfAbsent(rs.getLong(1), k -> new DayActivityIndex())
+                    .add(rs.getDate(2).toLocalDate(), rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6))) {
+                skipped[0]++;
+            }
+        });
+        Set<Long> raced = new HashSet<>();
+        synchronized (this) {
+            for (Map.Entry<Long, Writes> entry : writes.entrySet()) {
+                if (entry.getValue().overlaps(before.get(entry.getKey()))) {
+                    raced.add(entry.getKey());
+                }
+            }
+            indexes.keySet().removeIf(ownerId -> !rebuilt.containsKey(ownerId) && !raced.contains(ownerId));
+            rebuilt.forEach((ownerId, index) -> {
+                if (!raced.contains(ownerId)) {
+                    indexes.put(ownerId, index);
+                }
+            });
+        }
+        for (Long ownerId : raced) {
+            rebuild(ownerId);
+        }
+        log.info("Activity index rebuilt for {} users", rebuilt.size());
+        if (skipped[0] > 0) {
+            log.warn("Activity index skipped {} days with revisions dated outside 1970-2199", skipped[0]);
+        }
+    }
+    
+    /**
+     * Rebuilds one owner's index, e.g. after an import replaced their problems.
+     */
+    public void rebuild(Long ownerId) {
+        for (int attempt = 1; ; attempt++) {
+            Writes before;
+            synchronized (this) {
+                before = writesOf(ownerId).copy();
+            }
+            DayActivityIndex rebuilt = new DayActivityIndex();
+            jdbcTemplate.query(DAILY_TOTALS + "WHERE p.owner_id = ?" + GROUP_BY_OWNER_AND_DAY, rs -> {
+                if (!rebuilt.add(rs.getDate(2).toLocalDate(), rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6))) {
+                    log.warn("Activity index for user {} skipped a day dated outside 1970-2199", ownerId);
+                }
+            }, ownerId);
+            synchronized (this) {
+                boolean raced = writesOf(ownerId).overlaps(before);
+                if (!raced || attempt == MAX_REBUILD_ATTEMPTS) {
+                    if (raced) {
+                        log.warn("Activity index for user {} rebuilt while revisions kept arriving; it may be off "
+                                + "until the next rebuild", ownerId);
+                    }
+                    indexes.put(ownerId, rebuilt);
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Records one solve or revision once the surrounding transaction (if any) commits.
+     */
+    public void recordRevision(Long ownerId, LocalDateTime date, Integer timeSpent, Integer rating) {
+        applyAfterCommit(ownerId, index -> index.add(date.toLocalDate(), 1,
+                timeSpent != null ? timeSpent : 0,
+                rating != null ? rating : 0,
+                rating != null ? 1 : 0));
+    }
+    
+    /**
+     * Removes the revision history of a problem that is about to be deleted.
+     * Must be called before the solved_dates rows are gone.
+     */
+    public void forgetProblem(Long ownerId, Long problemId) {
+        List<Object[]> rows = jdbcTemplate.query(
+                "SELECT date, time_spent, rating FROM solved_dates WHERE problem_id = ?",
+                (rs, rowNum) -> new Object[] {
+                    rs.getTimestamp(1).toLocalDateTime().toLocalDate(),
+                    rs.getObject(2, Integer.class),
+                    rs.getObject(3, Integer.class)
+                },
+                problemId);
+        if (rows.isEmpty()) {
+            return;
+        }
+        applyAfterCommit(ownerId, index -> {
+            for (Object[] row : rows) {
+                Integer timeSpent = (Integer) row[1];
+                Integer rating = (Integer) row[2];
+                index.add((LocalDate) row[0], -1,
+                        timeSpent != null ? -timeSpent : 0,
+                        rating != null ? -rating : 0,
+                        rating != null ? -1 : 0);
+            }
+        });
+    }
+    
+    public ActivityDTO getActivity(Long ownerId, LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        
+        DayActivityIndex current = indexFor(ownerId);
+        List<DayActivityIndex.Day> days = current.range(start, end);
+        List<ActivityDayDTO> result = new ArrayList<>(days.size());
+        for (DayActivityIndex.Day day : days) {
+            double averageRating = day.getRatingCount() == 0
+                    ? 0.0
+                    : Math.round(day.getRatingSum() * 10.0 / day.getRatingCount()) / 10.0;
+            result.add(new ActivityDayDTO(day.getDate(), day.getCount(), day.getTimeSpent(), averageRating));
+        }
+        return new ActivityDTO(start, end,
+                current.currentStreak(LocalDate.now()),
+                current.longestStreak(),
+                current.activeDays(),
+                result);
+    }
+    
+    public StreakDTO getStreaks(Long ownerId) {
+        DayActivityIndex current = indexFor(ownerId);
+        return new StreakDTO(current.currentStreak(LocalDate.now()), current.longestStreak(), current.activeDays());
+    }
+    
+    private DayActivityIndex indexFor(Long ownerId) {
+        return indexes.computeIfAbsent(ownerId, k -> new DayActivityIndex());
+    }
+    
+    // The write stays in flight from now until its transaction completes; afterCommit runs first
+    private void applyAfterCommit(Long ownerId, Consumer<DayActivityIndex> update) {
+        synchronized (this) {
+            writesOf(ownerId).inFlight++;
+        }
+        afterCommit(() -> {
+            synchronized (this) {
+                update.accept(indexFor(ownerId));
+                writesOf(ownerId).applied++;
+            }
+        });
+        afterCompletion(() -> {
+            synchronized (this) {
+                writesOf(ownerId).inFlight--;
+            }
+        });
+    }
+    
+    private synchronized Map<Long, Writes> snapshotWrites() {
+        Map<Long, Writes> copy = new HashMap<>();
+        writes.forEach((ownerId, ownerWrites) -> copy.put(ownerId, ownerWrites.copy()));
+        return copy;
+    }
+    
+    // Caller holds the monitor
+    private Writes writesOf(Long ownerId) {
+        return writes.computeIfAbsent(ownerId, k -> new Writes());
+    }
+    
+    /**
+     * Index writes of one owner: registered but not finished, and applied so far.
+     */
+    private static class Writes {
+        int inFlight;
+        long applied;
+        
+        Writes copy() {
+            Writes copy = new Writes();
+            copy.inFlight = inFlight;
+            copy.applied = applied;
+            return copy;
+        }
+        
+        // Whether a load that started at {@code before} may or may not include one of these writes
+        boolean overlaps(Writes before) {
+            if (before == null) {
+                return inFlight > 0 || applied > 0;
+            }
+            return before.inFlight > 0 || inFlight > 0 || applied != before.applied;
+        }
+    }
+}
@@ -6,15 +6,21 @@ import com.codetrack.dto.RegisterRequest;
 import com.codetrack.entity.User;
 import com.codetrack.repository.UserRepository;
 import com.codetrack.util.JwtUtil;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Registration and login. Password hashing and checks run on the bounded
+ * {@link PasswordHashingService} pool; the returned futures complete there, and the
+ * {@code codetrack.service} timer stops when they do.
+ */
 @Service
-@Transactional
+@Timed(value = "codetrack.service", description = "Service method latency")
 public class AuthService {
     
     @Autowired
@@ -26,7 +32,13 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
-    public AuthResponse register(RegisterRequest request) {
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    
+    @Autowired
+    private LastLoginRecorder lastLoginRecorder;
+    
+    public CompletableFuture<AuthResponse> register(RegisterRequest request) {
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new RuntimeException("Username already exists");
         }
@@ -35,50 +47,58 @@ public class AuthService {
             throw new RuntimeException("Email already exists");
         }
         
-        User user = new User();
-        user.setUsername(request.getUsername());
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setCreatedAt(LocalDateTime.now());
-        user.setActive(true);
-        
-        User savedUser = userRepository.save(user);
-        
-        String token = jwtUtil.generateToken(savedUser.getUsername(), savedUser.getId());
-        
-        return new AuthResponse(
-            token,
-            "Bearer",
-            savedUser.getUsername(),
-            savedUser.getEmail(),
-            savedUser.getId()
-        );
+        return passwordHashingService.submit(() -> {
+            User user = new User();
+            user.setUsername(request.getUsername());
+            user.setEmail(request.getEmail());
+            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setCreatedAt(LocalDateTime.now());
+            user.setActive(true);
+            
+            User savedUser = userRepository.save(user);
+            
+            String token = jwtUtil.generateToken(savedUser.getUsername(), savedUser.getId());
+            
+            return new AuthResponse(
+                token,
+                "Bearer",
+                savedUser.getUsername(),
+                savedUser.getEmail(),
+                savedUser.getId()
+            );
+        });
     }
     
-    public AuthResponse login(LoginRequest request) {
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new RuntimeException("Invalid username or password"));
         
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Invalid username or password");
-        }
-        
-        if (!user.isActive()) {
-            throw new RuntimeException("Account is disabled");
-        }
-        
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
-        
-        String token = jwtUtil.generateToken(user.getUsername(), user.getId());
-        
-        return new AuthResponse(
-            token,
-            "Bearer",
-            user.getUsername(),
-            user.getEmail(),
-            user.getId()
-        );
+        return passwordHashingService.submit(() -> {
+            if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+                throw new RuntimeException("Invalid username or password");
+            }
+            
+            if (!user.isActive()) {
+                throw new RuntimeException("Account is disabled");
+            }
+            
+            // Hashes created with a lower BCrypt cost are upgraded transparently
+            if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+                userRepository.updatePassword(user.getId(), passwordEncoder.encode(request.getPassword()));
+            }
+            
+            lastLoginRecorder.record(user.getId(), LocalDateTime.now());
+            
+            String token = jwtUtil.generateToken(user.getUsername(), user.getId());
+            
+            return new AuthResponse(
+                token,
+                "Bearer",
+                user.getUsername(),
+                user.getEmail(),
+                user.getId()
+            );
+        });
     }
 }
 
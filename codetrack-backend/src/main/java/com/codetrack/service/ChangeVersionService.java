@@ -0,0 +1,120 @@
+package com.codetrack.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.codetrack.util.TransactionUtil.afterCompletion;
+
+/**
+ * Hands out the monotonically increasing change versions stamped on problem rows and tombstones
+ * for GET /api/problems/changes. Every write transaction gets one version, allocated on first use
+ * and shared by all rows it touches.
+ * <p>
+ * Versions are allocated before commit, so transactions can commit out of order. The high-water
+ * mark returned to clients therefore stops just below the oldest version still in flight: a client
+ * that syncs up to it can never miss a row that commits later with a smaller version.
+ */
+@Service
+public class ChangeVersionService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ChangeVersionService.class);
+    
+    // Key of the version bound to the current transaction
+    private static final Object TRANSACTION_KEY = new Object();
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private EntityCacheService entityCacheService;
+    
+    // Guards last and inFlight together so the high-water mark never sees one without the other
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    
+    private long last = -1; // -1 until loaded from the database
+    
+    /**
+     * Stamps rows written before change versions existed, so a full sync picks them up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long version = allocate();
+        try {
+            int rows = jdbcTemplate.update("UPDATE problems SET change_version = ? WHERE change_version IS NULL", version);
+            if (rows > 0) {
+                entityCacheService.evictAllProblems();
+                log.info("Backfilled change version {} on {} problems", version, rows);
+            }
+        } finally {
+            inFlight.remove(version);
+        }
+    }
+    
+    /**
+     * The version for everything the current transaction writes. It stays in flight, holding the
+     * high-water mark below it, until the transaction completes either way.
+     */
+    public long currentTransactionVersion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            long version = allocate();
+            inFlight.remove(version);
+            return version;
+        }
+        Long bound = (Long) TransactionSynchronizationManager.getResource(TRANSACTION_KEY);
+        if (bound != null) {
+            return bound;
+        }
+        long version = allocate();
+        TransactionSynchronizationManager.bindResource(TRANSACTION_KEY, version);
+        afterCompletion(() -> {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_KEY);
+            inFlight.remove(version);
+        });
+        return version;
+    }
+    
+    /**
+     * The highest version below which every change is committed and visible.
+     */
+    public long highWaterMark() {
+        lock.lock();
+        try {
+            ensureLoaded();
+            return inFlight.isEmpty() ? last : Math.min(last, inFlight.first() - 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private long allocate() {
+        lock.lock();
+        try {
+            ensureLoaded();
+            long version = ++last;
+            inFlight.add(version);
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void ensureLoaded() {
+        if (last >= 0) {
+            return;
+        }
+        Long problems = jdbcTemplate.queryForObject("SELECT MAX(change_version) FROM problems", Long.class);
+        Long tombstones = jdbcTemplate.queryForObject("SELECT MAX(change_version) FROM problem_tombstones", Long.class);
+        last = Math.max(problems != null ? problems : 0, tombstones != null ? tombstones : 0);
+    }
+}
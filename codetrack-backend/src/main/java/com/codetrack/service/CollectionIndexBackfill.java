@@ -0,0 +1,85 @@
+package com.codetrack.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Numbers the rows of problem_tags and problem_approaches that predate their list_index column
+ * (added with a default of 0, so every old row sits at position 0). A problem whose rows are not
+ * exactly 0..n-1 has them rewritten in their current order. Runs once the schema is up to date
+ * but before the server accepts requests, because loading such a list would silently drop rows.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class CollectionIndexBackfill {
+    
+    private static final Logger log = LoggerFactory.getLogger(CollectionIndexBackfill.class);
+    
+    private static final int BATCH_SIZE = 500;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PostConstruct
+    void backfill() {
+        backfill("problem_tags", "tag");
+        backfill("problem_approaches", "notes", "code");
+    }
+    
+    private void backfill(String table, String... columns) {
+        List<Long> pending = jdbcTemplate.queryForList(
+                "SELECT problem_id FROM " + table + " GROUP BY problem_id HAVING COUNT(*) <> MAX(list_index) + 1",
+                Long.class);
+        if (pending.isEmpty()) {
+            return;
+        }
+        String columnList = String.join(", ", columns);
+        String insert = "INSERT INTO " + table + " (problem_id, list_index, " + columnList + ") VALUES (?, ?"
+                + ", ?".repeat(columns.length) + ")";
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        
+        for (int from = 0; from < pending.size(); from += BATCH_SIZE) {
+            MapSqlParameterSource params = new MapSqlParameterSource(
+                    "ids", pending.subList(from, Math.min(from + BATCH_SIZE, pending.size())));
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, Integer> nextIndex = new HashMap<>();
+                List<Object[]> rows = new ArrayList<>();
+                namedParameterJdbcTemplate.query(
+                        "SELECT problem_id, " + columnList + " FROM " + table + " WHERE problem_id IN (:ids) " +
+                        "ORDER BY problem_id, list_index", params, rs -> {
+                    long problemId = rs.getLong(1);
+                    Object[] row = new Object[columns.length + 2];
+                    row[0] = problemId;
+                    row[1] = nextIndex.merge(problemId, 1, Integer::sum) - 1;
+                    for (int i = 0; i < columns.length; i++) {
+                        row[i + 2] = rs.getString(i + 2);
+                    }
+                    rows.add(row);
+                });
+                namedParameterJdbcTemplate.update("DELETE FROM " + table + " WHERE problem_id IN (:ids)", params);
+                jdbcTemplate.batchUpdate(insert, rows);
+            });
+        }
+        log.info("Numbered {} rows for {} problems", table, pending.size());
+    }
+}
@@ -0,0 +1,37 @@
+package com.codetrack.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.codetrack.util.TransactionUtil.afterCommit;
+
+/**
+ * Version of the problem data a user sees, used as the ETag of the problem GET endpoints.
+ * Every ProblemService and import write bumps its owner's counter after commit, so a response is
+ * never labelled with a version newer than the data it was built from, and one user's writes never
+ * invalidate another user's cached responses. The tag carries a per-process epoch so a restart can
+ * never make an old tag match again, and the owner id so tags of different users never collide.
+ * <p>
+ * The tag is weak: the same data is served as JSON, CBOR or Smile, gzipped or not, and those
+ * variants are equivalent but not byte-identical. Tomcat also refuses to compress a response
+ * that carries a strong ETag.
+ */
+@Service
+public class DataVersionService {
+    
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    
+    // One counter per owner that has written since startup; readers of other owners see version 0
+    private final ConcurrentHashMap<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    
+    public String currentTag(Long ownerId) {
+        AtomicLong version = versions.get(ownerId);
+        return "W/\"" + epoch + "-" + ownerId + "-" + (version != null ? version.get() : 0) + "\"";
+    }
+    
+    public void bump(Long ownerId) {
+        afterCommit(() -> versions.computeIfAbsent(ownerId, k -> new AtomicLong()).incrementAndGet());
+    }
+}
@@ -0,0 +1,102 @@
+package com.codetrack.service;
+
+import com.codetrack.config.EntityCacheConfig;
+import com.codetrack.entity.Problem;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.codetrack.util.TransactionUtil.afterCompletion;
+
+/**
+ * Keeps the second-level cache honest around writes that go straight to JDBC (bulk revisions,
+ * imports, backfills), which Hibernate cannot see. The affected problems are evicted before the
+ * write and again once the transaction has completed, so an entry reloaded in between from the
+ * old row does not survive. Writes through the EntityManager need none of this.
+ */
+@Service
+public class EntityCacheService {
+    
+    private static final String TAGS_ROLE = Problem.class.getName() + ".tags";
+    private static final String APPROACHES_ROLE = Problem.class.getName() + ".approaches";
+    private static final String SOLVED_DATES_ROLE = Problem.class.getName() + ".solvedDates";
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    public void evictProblems(Collection<Long> ids) {
+        List<Long> snapshot = new ArrayList<>(ids);
+        evict(snapshot);
+        afterCompletion(() -> evict(snapshot));
+    }
+    
+    /**
+     * Evicts one problem's cached revision history, for a revision saved without going through
+     * the (possibly uninitialized) collection.
+     */
+    public void evictRevisionHistory(Long problemId) {
+        evictSolvedDates(problemId);
+        afterCompletion(() -> evictSolvedDates(problemId));
+    }
+    
+    public void evictAllProblems() {
+        evictAll();
+        afterCompletion(this::evictAll);
+    }
+    
+    private void evict(List<Long> ids) {
+        Cache cache = sessionFactory().getCache();
+        for (Long id : ids) {
+            cache.evictEntityData(Problem.class, id);
+            cache.evictCollectionData(TAGS_ROLE, id);
+            cache.evictCollectionData(APPROACHES_ROLE, id);
+            cache.evictCollectionData(SOLVED_DATES_ROLE, id);
+        }
+    }
+    
+    private void evictSolvedDates(Long problemId) {
+        sessionFactory().getCache().evictCollectionData(SOLVED_DATES_ROLE, problemId);
+    }
+    
+    // Revisions stay cached: rows are only ever added, and their ids are reached through the evicted collections
+    private void evictAll() {
+        Cache cache = sessionFactory().getCache();
+        cache.evictEntityData(Problem.class);
+        cache.evictCollectionData(TAGS_ROLE);
+        cache.evictCollectionData(APPROACHES_ROLE);
+        cache.evictCollectionData(SOLVED_DATES_ROLE);
+    }
+    
+    public Map<String, Object> getStats() {
+        Statistics statistics = sessionFactory().getStatistics();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        // codetrack.metrics.hibernate-statistics; while off, every count below stays 0
+        stats.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        for (String region : EntityCacheConfig.REGIONS) {
+            CacheRegionStatistics regionStats = statistics.getDomainDataRegionStatistics(region);
+            long hits = regionStats.getHitCount();
+            long misses = regionStats.getMissCount();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("hits", hits);
+            entry.put("misses", misses);
+            entry.put("puts", regionStats.getPutCount());
+            entry.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+            stats.put(region, entry);
+        }
+        return stats;
+    }
+    
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
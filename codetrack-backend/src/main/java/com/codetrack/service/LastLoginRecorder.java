@@ -0,0 +1,68 @@
+package com.codetrack.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for users.last_login. Logins only record the timestamp in memory; a
+ * scheduled flush writes all pending users with one batched UPDATE, and a final flush runs on
+ * shutdown. Repeated logins by the same user between flushes collapse into a single row write.
+ */
+@Service
+public class LastLoginRecorder {
+    
+    private static final Logger log = LoggerFactory.getLogger(LastLoginRecorder.class);
+    
+    // Never moves last_login backwards, e.g. when a flush races a newer one
+    private static final String UPDATE_LAST_LOGIN =
+            "UPDATE users SET last_login = ? WHERE id = ? AND (last_login IS NULL OR last_login < ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    
+    public void record(Long userId, LocalDateTime loginAt) {
+        pending.merge(userId, loginAt, (a, b) -> a.isAfter(b) ? a : b);
+    }
+    
+    @Scheduled(fixedDelayString = "${codetrack.auth.last-login-flush-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(pending.size());
+        for (Long userId : pending.keySet()) {
+            LocalDateTime loginAt = pending.remove(userId);
+            if (loginAt != null) {
+                Timestamp ts = Timestamp.valueOf(loginAt);
+                batch.add(new Object[] {ts, userId, ts});
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, batch);
+        } catch (RuntimeException e) {
+            // Put the timestamps back so the next flush retries them
+            for (Object[] row : batch) {
+                record((Long) row[1], ((Timestamp) row[0]).toLocalDateTime());
+            }
+            log.warn("Failed to flush last login for {} users", batch.size(), e);
+        }
+    }
+    
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
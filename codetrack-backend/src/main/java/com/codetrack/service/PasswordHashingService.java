@@ -0,0 +1,90 @@
+package com.codetrack.service;
+
+import com.codetrack.exception.ServiceBusyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt work (login checks, registration hashing, rehashes) on its own fixed-size pool
+ * with a bounded queue, so a burst of logins cannot occupy the servlet threads that serve
+ * everything else. When the queue is full the task is refused up front with
+ * {@link ServiceBusyException} instead of waiting.
+ */
+@Service
+public class PasswordHashingService {
+    
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+    
+    @Value("${codetrack.auth.hash-threads:0}")
+    private int threads; // 0 = one per available processor
+    
+    @Value("${codetrack.auth.hash-queue-capacity:64}")
+    private int queueCapacity;
+    
+    @Value("${codetrack.auth.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+    
+    private ThreadPoolExecutor executor;
+    
+    private final LongAdder rejected = new LongAdder();
+    
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password hashing pool: {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+    
+    /**
+     * Runs {@code task} on the hashing pool.
+     *
+     * @throws ServiceBusyException if the pool and its queue are full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Too many login attempts in progress, try again shortly", retryAfterSeconds);
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", executor.getMaximumPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("completed", executor.getCompletedTaskCount());
+        stats.put("rejected", rejected.sum());
+        return stats;
+    }
+}
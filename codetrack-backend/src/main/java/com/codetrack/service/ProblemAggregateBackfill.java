@@ -0,0 +1,122 @@
+package com.codetrack.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One-off backfill of derived columns on problems created before those columns existed:
+ * the running rating aggregates (recognised by a NULL rating_count), next_revision_due and the
+ * sort keys last_activity_at and priority_rank.
+ * Rows are processed in bounded ranges so each statement stays small. Once every row is
+ * filled this is a couple of cheap queries per startup.
+ */
+@Component
+public class ProblemAggregateBackfill {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProblemAggregateBackfill.class);
+    
+    private static final long RANGE_SIZE = 1000;
+    
+    private static final String BACKFILL_RANGE =
+            "UPDATE problems SET " +
+            "rating_sum = COALESCE((SELECT SUM(sd.rating) FROM solved_dates sd WHERE sd.problem_id = problems.id), 0), " +
+            "rating_count = (SELECT COUNT(sd.rating) FROM solved_dates sd WHERE sd.problem_id = problems.id), " +
+            "min_rating = (SELECT MIN(sd.rating) FROM solved_dates sd WHERE sd.problem_id = problems.id), " +
+            "max_rating = (SELECT MAX(sd.rating) FROM solved_dates sd WHERE sd.problem_id = problems.id), " +
+            "last_rating = (SELECT sd.rating FROM solved_dates sd WHERE sd.problem_id = problems.id " +
+            "AND sd.rating IS NOT NULL ORDER BY sd.date DESC, sd.id DESC LIMIT 1), " +
+            "average_rating = COALESCE((SELECT ROUND(AVG(sd.rating * 1.0), 1) FROM solved_dates sd " +
+            "WHERE sd.problem_id = problems.id), 0) " +
+            "WHERE rating_count IS NULL AND id BETWEEN ? AND ?";
+    
+    // Same values as ProblemService sets on every write: lastRevised or createdAt, and priorityRank(priority)
+    private static final String BACKFILL_SORT_KEYS =
+            "UPDATE problems SET " +
+            "last_activity_at = COALESCE(last_activity_at, last_revised, created_at), " +
+            "priority_rank = COALESCE(priority_rank, CASE priority WHEN 'Critical' THEN 4 WHEN 'High' THEN 3 " +
+            "WHEN 'Medium' THEN 2 WHEN 'Low' THEN 1 ELSE 0 END) " +
+            "WHERE (last_activity_at IS NULL OR priority_rank IS NULL) AND id BETWEEN ? AND ?";
+    
+    private static final String PENDING_NEXT_DUE =
+            "SELECT id, last_revised, created_at, revision_interval FROM problems " +
+            "WHERE next_revision_due IS NULL ORDER BY id LIMIT " + RANGE_SIZE;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private EntityCacheService entityCacheService;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        backfillRatingAggregates();
+        backfillNextRevisionDue();
+        backfillSortKeys();
+    }
+    
+    private void backfillRatingAggregates() {
+        Long[] range = jdbcTemplate.queryForObject(
+                "SELECT MIN(id), MAX(id) FROM problems WHERE rating_count IS NULL",
+                (rs, rowNum) -> new Long[] {rs.getObject(1, Long.class), rs.getObject(2, Long.class)});
+        if (range == null || range[0] == null) {
+            return;
+        }
+        
+        int updated = 0;
+        for (long from = range[0]; from <= range[1]; from += RANGE_SIZE) {
+            long to = from + RANGE_SIZE - 1;
+            updated += jdbcTemplate.update(BACKFILL_RANGE, from, to);
+        }
+        entityCacheService.evictAllProblems();
+        log.info("Backfilled rating aggregates for {} problems", updated);
+    }
+    
+    private void backfillSortKeys() {
+        Long[] range = jdbcTemplate.queryForObject(
+                "SELECT MIN(id), MAX(id) FROM problems WHERE last_activity_at IS NULL OR priority_rank IS NULL",
+                (rs, rowNum) -> new Long[] {rs.getObject(1, Long.class), rs.getObject(2, Long.class)});
+        if (range == null || range[0] == null) {
+            return;
+        }
+        
+        int updated = 0;
+        for (long from = range[0]; from <= range[1]; from += RANGE_SIZE) {
+            updated += jdbcTemplate.update(BACKFILL_SORT_KEYS, from, from + RANGE_SIZE - 1);
+        }
+        entityCacheService.evictAllProblems();
+        log.info("Backfilled sort keys for {} problems", updated);
+    }
+    
+    // Date arithmetic differs between H2, PostgreSQL and MySQL, so the due date is computed here
+    private void backfillNextRevisionDue() {
+        int updated = 0;
+        while (true) {
+            List<Object[]> rows = jdbcTemplate.query(PENDING_NEXT_DUE, (rs, rowNum) -> {
+                Timestamp lastRevised = rs.getTimestamp(2);
+                LocalDateTime nextDue = ProblemService.nextRevisionDue(
+                        lastRevised != null ? lastRevised.toLocalDateTime() : null,
+                        rs.getTimestamp(3).toLocalDateTime(),
+                        rs.getObject(4, Integer.class));
+                return new Object[] {Timestamp.valueOf(nextDue), rs.getLong(1)};
+            });
+            if (rows.isEmpty()) {
+                break;
+            }
+            jdbcTemplate.batchUpdate("UPDATE problems SET next_revision_due = ? WHERE id = ?", rows);
+            updated += rows.size();
+        }
+        if (updated > 0) {
+            entityCacheService.evictAllProblems();
+            log.info("Backfilled next revision due date for {} problems", updated);
+        }
+    }
+}
@@ -0,0 +1,573 @@
+package com.codetrack.service;
+
+import com.codetrack.dto.ApproachDTO;
+import com.codetrack.dto.ImportChunkDTO;
+import com.codetrack.dto.ImportResultDTO;
+import com.codetrack.dto.ProblemDTO;
+import com.codetrack.dto.SolvedDateDTO;
+import com.codetrack.util.CompressedText;
+import com.codetrack.util.RevisionValidator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import for POST /api/problems/import.
+ * <p>
+ * The payload is read incrementally with Jackson's streaming parser, validated and de-duplicated
+ * (by link, or by title when there is no link) in chunks, and each chunk is written with JDBC batch
+ * inserts in its own transaction. A failing chunk is rolled back and reported; other chunks still land.
+ * <p>
+ * Accepted payloads: {@code {"problems": [...], "merge": true}}, a bare JSON array, or NDJSON as
+ * produced by the export endpoint. Imported problems belong to the importing user, and both
+ * de-duplication and replace mode only ever look at that user's problems.
+ */
+@Service
+public class ProblemImportService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProblemImportService.class);
+    
+    public static final int CHUNK_SIZE = 500;
+    
+    private static final int DELETE_BATCH_SIZE = 500;
+    
+    // Across the whole run, so a large file of bad rows cannot build an unbounded response
+    static final int MAX_REPORTED_ERRORS = 100;
+    
+    private static final String INSERT_PROBLEM =
+            "INSERT INTO problems (owner_id, title, pattern, difficulty, platform, link, notes, priority, revision_interval, " +
+            "revision_count, last_revised, created_at, total_time_spent, average_rating, " +
+            "rating_sum, rating_count, min_rating, max_rating, last_rating, next_revision_due, change_version, " +
+            "last_activity_at, priority_rank) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String INSERT_SOLVED_DATE =
+            "INSERT INTO solved_dates (problem_id, date, time_spent, rating) VALUES (?, ?, ?, ?)";
+    
+    private static final String INSERT_TAG =
+            "INSERT INTO problem_tags (problem_id, list_index, tag) VALUES (?, ?, ?)";
+    
+    private static final String INSERT_APPROACH =
+            "INSERT INTO problem_approaches (problem_id, list_index, notes, code) VALUES (?, ?, ?, ?)";
+    
+    private static final String INSERT_TOMBSTONE =
+            "INSERT INTO problem_tombstones (problem_id, owner_id, change_version, deleted_at) VALUES (?, ?, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ActivityService activityService;
+    
+    @Autowired
+    private ProblemSearchService problemSearchService;
+    
+    @Autowired
+    private DataVersionService dataVersionService;
+    
+    @Autowired
+    private ChangeVersionService changeVersionService;
+    
+    @Autowired
+    private EntityCacheService entityCacheService;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    public ProblemImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * @param ownerId user the problems are imported for
+     * @param in     request body
+     * @param ndjson whether the body is newline-delimited JSON rather than an array or wrapper object
+     * @param merge  keep existing problems ({@code true}) or replace them; when {@code null} the
+     *               payload's own {@code merge} field decides, defaulting to merge
+     */
+    public ImportResultDTO importProblems(Long ownerId, InputStream in, boolean ndjson, Boolean merge) throws IOException {
+        ImportRun run = new ImportRun(ownerId, merge);
+        loadExistingKeys(run);
+        
+        boolean complete = false;
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (ndjson) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    accept(run, parser.readValueAsTree());
+                }
+            } else {
+                JsonToken first = parser.nextToken();
+                if (first == JsonToken.START_ARRAY) {
+                    readProblemArray(run, parser);
+                } else if (first == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.getCurrentName();
+                        JsonToken value = parser.nextToken();
+                        if ("problems".equals(field) && value == JsonToken.START_ARRAY) {
+                            readProblemArray(run, parser);
+                        } else if ("merge".equals(field) && value.isBoolean()) {
+                            if (run.merge == null) {
+                                run.merge = parser.getBooleanValue();
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else if (first != null) {
+                    throw new IllegalArgumentException("Expected a JSON array or object");
+                }
+            }
+            complete = true;
+        } catch (JsonProcessingException e) {
+            JsonLocation location = e.getLocation();
+            reportError(run, run.current, "Malformed payload"
+                    + (location != null ? " at line " + location.getLineNr() : "") + ": " + e.getOriginalMessage());
+        }
+        flush(run);
+        if (run.unreportedErrors > 0 && !run.result.getChunks().isEmpty()) {
+            List<ImportChunkDTO> chunks = run.result.getChunks();
+            chunks.get(chunks.size() - 1).getErrors().add("… " + run.unreportedErrors + " more");
+        }
+        
+        ImportResultDTO result = run.result;
+        result.setMerge(run.merge == null || run.merge);
+        if (!result.isMerge()) {
+            if (complete && result.getFailed() == 0) {
+                result.setRemoved(removeReplacedProblems(run));
+                activityService.rebuild(ownerId);
+                problemSearchService.rebuild(ownerId);
+                dataVersionService.bump(ownerId);
+            } else {
+                log.warn("Import was incomplete or had {} failed problems; existing problems were kept despite merge=false",
+                        result.getFailed());
+            }
+        }
+        return result;
+    }
+    
+    private void readProblemArray(ImportRun run, JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            accept(run, parser.readValueAsTree());
+        }
+    }
+    
+    private void accept(ImportRun run, JsonNode node) {
+        int index = run.nextIndex++;
+        run.inChunk++;
+        stage(run, index, node);
+        if (run.inChunk == CHUNK_SIZE) {
+            flush(run);
+        }
+    }
+    
+    private void stage(ImportRun run, int index, JsonNode node) {
+        ProblemDTO dto;
+        try {
+            dto = objectMapper.treeToValue(node, ProblemDTO.class);
+        } catch (JsonProcessingException e) {
+            fail(run, index, "unreadable problem: " + e.getOriginalMessage());
+            return;
+        }
+        
+        String error = validate(dto);
+        if (error != null) {
+            fail(run, index, error);
+            return;
+        }
+        
+        String key = dedupKey(dto.getLink(), dto.getTitle());
+        Long existingId = run.existingKeys.get(key);
+        if (existingId != null) {
+            run.retainedIds.add(existingId);
+            run.current.setDuplicates(run.current.getDuplicates() + 1);
+            return;
+        }
+        if (!run.seenKeys.add(key)) {
+            run.current.setDuplicates(run.current.getDuplicates() + 1);
+            return;
+        }
+        
+        try {
+            run.pending.add(toRow(dto));
+        } catch (RuntimeException e) {
+            run.seenKeys.remove(key);
+            fail(run, index, e.getMessage());
+        }
+    }
+    
+    private void fail(ImportRun run, int index, String reason) {
+        run.current.setFailed(run.current.getFailed() + 1);
+        reportError(run, run.current, "#" + index + ": " + reason);
+    }
+    
+    private void reportError(ImportRun run, ImportChunkDTO chunk, String message) {
+        if (run.reportedErrors < MAX_REPORTED_ERRORS) {
+            chunk.getErrors().add(message);
+            run.reportedErrors++;
+        } else {
+            run.unreportedErrors++;
+        }
+    }
+    
+    private String validate(ProblemDTO dto) {
+        if (dto.getTitle() == null || dto.getTitle().isBlank()) {
+            return "title is required";
+        }
+        if (dto.getPattern() == null || dto.getPattern().isBlank()) {
+            return "pattern is required";
+        }
+        if (dto.getDifficulty() == null || dto.getDifficulty().isBlank()) {
+            return "difficulty is required";
+        }
+        LocalDateTime now = LocalDateTime.now();
+        String invalid = RevisionValidator.checkDate(dto.getCreatedAt(), now);
+        if (invalid == null) {
+            invalid = RevisionValidator.checkDate(dto.getLastRevised(), now);
+        }
+        if (invalid == null && dto.getSolvedDates() != null) {
+            for (SolvedDateDTO entry : dto.getSolvedDates()) {
+                invalid = RevisionValidator.checkDate(entry.date(), now);
+                if (invalid == null && entry.rating() != null && entry.rating() != 0) { // 0 is "no rating"
+                    invalid = RevisionValidator.checkRating(entry.rating());
+                }
+                if (invalid != null) {
+                    break;
+                }
+            }
+        }
+        return invalid;
+    }
+    
+    private String dedupKey(String link, String title) {
+        if (link != null && !link.isBlank()) {
+            return "link:" + link.trim().toLowerCase(Locale.ROOT);
+        }
+        return "title:" + (title == null ? "" : title.trim().toLowerCase(Locale.ROOT));
+    }
+    
+    private void loadExistingKeys(ImportRun run) {
+        jdbcTemplate.query("SELECT id, link, title FROM problems WHERE owner_id = ?", rs -> {
+            long id = rs.getLong(1);
+            run.existingIds.add(id);
+            run.existingKeys.putIfAbsent(dedupKey(rs.getString(2), rs.getString(3)), id);
+        }, run.ownerId);
+    }
+    
+    private void flush(ImportRun run) {
+        ImportChunkDTO chunk = run.current;
+        List<ProblemRow> rows = run.pending;
+        if (!rows.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeChunk(run.ownerId, rows));
+                chunk.setImported(rows.size());
+                for (ProblemRow row : rows) {
+                    for (SolvedDateRow sd : row.solvedDates) {
+                        activityService.recordRevision(run.ownerId, sd.date, sd.timeSpent, sd.rating);
+                    }
+                    indexRow(run.ownerId, row);
+                }
+                dataVersionService.bump(run.ownerId);
+            } catch (DataAccessException e) {
+                chunk.setFailed(chunk.getFailed() + rows.size());
+                reportError(run, chunk, "chunk rolled back: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+        
+        if (run.inChunk > 0 || !chunk.getErrors().isEmpty()) {
+            ImportResultDTO result = run.result;
+            result.setImported(result.getImported() + chunk.getImported());
+            result.setDuplicates(result.getDuplicates() + chunk.getDuplicates());
+            result.setFailed(result.getFailed() + chunk.getFailed());
+            result.getChunks().add(chunk);
+            log.info("Import chunk {}: {} imported, {} duplicates, {} failed",
+                    chunk.getChunk(), chunk.getImported(), chunk.getDuplicates(), chunk.getFailed());
+        }
+        
+        run.current = new ImportChunkDTO();
+        run.current.setChunk(chunk.getChunk() + 1);
+        run.pending = new ArrayList<>(CHUNK_SIZE);
+        run.inChunk = 0;
+    }
+    
+    private void writeChunk(Long ownerId, List<ProblemRow> rows) {
+        long changeVersion = changeVersionService.currentTransactionVersion();
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_PROBLEM, new String[] {"id"})) {
+                for (ProblemRow row : rows) {
+                    ProblemDTO dto = row.dto;
+                    ps.setLong(1, ownerId);
+                    ps.setString(2, dto.getTitle());
+                    ps.setString(3, dto.getPattern());
+                    ps.setString(4, dto.getDifficulty());
+                    ps.setString(5, dto.getPlatform());
+                    ps.setString(6, dto.getLink());
+                    ps.setString(7, CompressedText.encode(dto.getNotes()));
+                    ps.setString(8, dto.getPriority());
+                    ps.setInt(9, row.revisionInterval);
+                    ps.setInt(10, row.revisionCount);
+                    setTimestamp(ps, 11, row.lastRevised);
+                    setTimestamp(ps, 12, row.createdAt);
+                    ps.setInt(13, row.totalTimeSpent);
+                    ps.setDouble(14, row.averageRating);
+                    ps.setInt(15, row.ratingSum);
+                    ps.setInt(16, row.ratingCount);
+                    setInteger(ps, 17, row.minRating);
+                    setInteger(ps, 18, row.maxRating);
+                    setInteger(ps, 19, row.lastRating);
+                    setTimestamp(ps, 20, row.nextRevisionDue);
+                    ps.setLong(21, changeVersion);
+                    setTimestamp(ps, 22, row.lastRevised != null ? row.lastRevised : row.createdAt);
+                    ps.setInt(23, ProblemService.priorityRank(dto.getPriority()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next()) {
+                        rows.get(i++).id = keys.getLong(1);
+                    }
+                    if (i != rows.size()) {
+                        throw new IllegalStateException("Expected " + rows.size() + " generated keys, got " + i);
+                    }
+                }
+            }
+            return null;
+        });
+        
+        List<Object[]> solvedDates = new ArrayList<>();
+        List<Object[]> tags = new ArrayList<>();
+        List<Object[]> approaches = new ArrayList<>();
+        for (ProblemRow row : rows) {
+            for (SolvedDateRow sd : row.solvedDates) {
+                solvedDates.add(new Object[] {row.id, Timestamp.valueOf(sd.date), sd.timeSpent, sd.rating});
+            }
+            if (row.dto.getTags() != null) {
+                List<String> rowTags = row.dto.getTags();
+                for (int i = 0; i < rowTags.size(); i++) {
+                    tags.add(new Object[] {row.id, i, rowTags.get(i)});
+                }
+            }
+            if (row.dto.getApproaches() != null) {
+                List<ApproachDTO> rowApproaches = row.dto.getApproaches();
+                for (int i = 0; i < rowApproaches.size(); i++) {
+                    ApproachDTO approach = rowApproaches.get(i);
+                    approaches.add(new Object[] {
+                        row.id,
+                        i,
+                        CompressedText.encode(approach.notes() != null ? approach.notes() : ""),
+                        CompressedText.encode(approach.code() != null ? approach.code() : "")
+                    });
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SOLVED_DATE, solvedDates,
+                new int[] {Types.BIGINT, Types.TIMESTAMP, Types.INTEGER, Types.INTEGER});
+        jdbcTemplate.batchUpdate(INSERT_TAG, tags);
+        jdbcTemplate.batchUpdate(INSERT_APPROACH, approaches);
+    }
+    
+    private void indexRow(Long ownerId, ProblemRow row) {
+        ProblemDTO dto = row.dto;
+        List<String> approachNotes = new ArrayList<>();
+        List<String> approachCode = new ArrayList<>();
+        if (dto.getApproaches() != null) {
+            for (ApproachDTO approach : dto.getApproaches()) {
+                approachNotes.add(approach.notes());
+                approachCode.add(approach.code());
+            }
+        }
+        problemSearchService.index(ownerId, row.id, dto.getTitle(), dto.getPattern(), dto.getNotes(),
+                dto.getTags(), approachNotes, approachCode);
+    }
+    
+    private void setInteger(PreparedStatement ps, int index, Integer value) throws java.sql.SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+    
+    private void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws java.sql.SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.TIMESTAMP);
+        } else {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        }
+    }
+    
+    /**
+     * Derives the persisted counters from the payload, falling back to the revision history
+     * when the exported values are missing (e.g. hand-written files).
+     */
+    private ProblemRow toRow(ProblemDTO dto) {
+        ProblemRow row = new ProblemRow();
+        row.dto = dto;
+        row.createdAt = dto.getCreatedAt() != null ? dto.getCreatedAt() : LocalDateTime.now();
+        
+        int timeSum = 0;
+        LocalDateTime latest = null;
+        LocalDateTime latestRated = null;
+        if (dto.getSolvedDates() != null) {
+            for (SolvedDateDTO entry : dto.getSolvedDates()) {
+                SolvedDateRow sd = new SolvedDateRow();
+                sd.date = entry.date() != null ? entry.date() : row.createdAt;
+                sd.timeSpent = entry.timeSpent();
+                Integer rating = entry.rating();
+                sd.rating = rating != null && rating > 0 ? rating : null; // exports write 0 for "no rating"
+                row.solvedDates.add(sd);
+                
+                if (sd.timeSpent != null) {
+                    timeSum += sd.timeSpent;
+                }
+                if (sd.rating != null) {
+                    row.ratingSum += sd.rating;
+                    row.ratingCount++;
+                    row.minRating = row.minRating == null ? sd.rating : Math.min(row.minRating, sd.rating);
+                    row.maxRating = row.maxRating == null ? sd.rating : Math.max(row.maxRating, sd.rating);
+                    if (latestRated == null || !sd.date.isBefore(latestRated)) {
+                        latestRated = sd.date;
+                        row.lastRating = sd.rating;
+                    }
+                }
+                if (latest == null || sd.date.isAfter(latest)) {
+                    latest = sd.date;
+                }
+            }
+        }
+        if (row.solvedDates.isEmpty()) {
+            SolvedDateRow initial = new SolvedDateRow();
+            initial.date = row.createdAt;
+            row.solvedDates.add(initial);
+        }
+        
+        row.revisionCount = dto.getRevisionCount() != null
+                ? dto.getRevisionCount()
+                : Math.max(0, row.solvedDates.size() - 1);
+        row.lastRevised = dto.getLastRevised() != null
+                ? dto.getLastRevised()
+                : (row.revisionCount > 0 ? latest : null);
+        row.totalTimeSpent = dto.getTotalTimeSpent() != null ? dto.getTotalTimeSpent() : timeSum;
+        row.averageRating = ProblemService.averageRating(row.ratingSum, row.ratingCount);
+        row.revisionInterval = dto.getRevisionInterval() != null
+                ? dto.getRevisionInterval()
+                : ProblemService.DEFAULT_REVISION_INTERVAL;
+        row.nextRevisionDue = ProblemService.nextRevisionDue(row.lastRevised, row.createdAt, row.revisionInterval);
+        return row;
+    }
+    
+    /**
+     * Replace mode: deletes every problem of the importing user that existed before the import
+     * and was not matched by an imported duplicate, leaving a tombstone for each. Only called
+     * once every imported problem has been written, and deletes in a single transaction so the
+     * old set is either fully replaced or left intact.
+     */
+    private int removeReplacedProblems(ImportRun run) {
+        List<Long> doomed = new ArrayList<>();
+        for (Long id : run.existingIds) {
+            if (!run.retainedIds.contains(id)) {
+                doomed.add(id);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < doomed.size(); from += DELETE_BATCH_SIZE) {
+                List<Long> batch = doomed.subList(from, Math.min(from + DELETE_BATCH_SIZE, doomed.size()));
+                MapSqlParameterSource params = new MapSqlParameterSource("ids", batch);
+                entityCacheService.evictProblems(batch);
+                namedParameterJdbcTemplate.update("DELETE FROM solved_dates WHERE problem_id IN (:ids)", params);
+                namedParameterJdbcTemplate.update("DELETE FROM problem_tags WHERE problem_id IN (:ids)", params);
+                namedParameterJdbcTemplate.update("DELETE FROM problem_approaches WHERE problem_id IN (:ids)", params);
+                namedParameterJdbcTemplate.update("DELETE FROM problems WHERE id IN (:ids)", params);
+                
+                long changeVersion = changeVersionService.currentTransactionVersion();
+                Timestamp deletedAt = Timestamp.valueOf(LocalDateTime.now());
+                List<Object[]> tombstones = new ArrayList<>(batch.size());
+                for (Long id : batch) {
+                    tombstones.add(new Object[] {id, run.ownerId, changeVersion, deletedAt});
+                }
+                jdbcTemplate.batchUpdate(INSERT_TOMBSTONE, tombstones);
+            }
+        });
+        return doomed.size();
+    }
+    
+    private static class ImportRun {
+        final Long ownerId;
+        Boolean merge;
+        final ImportResultDTO result = new ImportResultDTO();
+        final Map<String, Long> existingKeys = new HashMap<>();
+        final List<Long> existingIds = new ArrayList<>();
+        final Set<Long> retainedIds = new HashSet<>();
+        final Set<String> seenKeys = new HashSet<>();
+        ImportChunkDTO current = new ImportChunkDTO();
+        List<ProblemRow> pending = new ArrayList<>(CHUNK_SIZE);
+        int inChunk;
+        int nextIndex;
+        int reportedErrors;
+        int unreportedErrors;
+        
+        ImportRun(Long ownerId, Boolean merge) {
+            this.ownerId = ownerId;
+            this.merge = merge;
+            this.current.setChunk(1);
+        }
+    }
+    
+    private static class ProblemRow {
+        Long id;
+        ProblemDTO dto;
+        LocalDateTime createdAt;
+        LocalDateTime lastRevised;
+        LocalDateTime nextRevisionDue;
+        int revisionInterval;
+        int revisionCount;
+        int totalTimeSpent;
+        double averageRating;
+        int ratingSum;
+        int ratingCount;
+        Integer minRating;
+        Integer maxRating;
+        Integer lastRating;
+        final List<SolvedDateRow> solvedDates = new ArrayList<>();
+    }
+    
+    private static class SolvedDateRow {
+        LocalDateTime date;
+        Integer timeSpent;
+        Integer rating;
+    }
+}
@@ -0,0 +1,62 @@
+package com.codetrack.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Assigns problems created before problems had an owner. They go to the user named by
+ * {@code codetrack.ownership.legacy-owner}, or, when that is unset and there is exactly one user,
+ * to that user. Otherwise they stay unowned, and invisible to everyone, until the property is set.
+ * Tombstones of such problems are stamped too so delta sync reports their deletion.
+ * Runs before the search and activity indexes are built, which only index owned problems.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class ProblemOwnerBackfill {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProblemOwnerBackfill.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${codetrack.ownership.legacy-owner:}")
+    private String legacyOwner;
+    
+    @PostConstruct
+    void backfill() {
+        Long unowned = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM problems WHERE owner_id IS NULL", Long.class);
+        if (unowned == null || unowned == 0) {
+            return;
+        }
+        Long ownerId = resolveOwner();
+        if (ownerId == null) {
+            log.warn("{} problems have no owner and are hidden; set codetrack.ownership.legacy-owner "
+                    + "to the username that should own them", unowned);
+            return;
+        }
+        int problems = jdbcTemplate.update("UPDATE problems SET owner_id = ? WHERE owner_id IS NULL", ownerId);
+        jdbcTemplate.update("UPDATE problem_tombstones SET owner_id = ? WHERE owner_id IS NULL", ownerId);
+        log.info("Assigned {} unowned problems to user {}", problems, ownerId);
+    }
+    
+    private Long resolveOwner() {
+        if (!legacyOwner.isBlank()) {
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM users WHERE username = ?", Long.class, legacyOwner);
+            if (ids.isEmpty()) {
+                log.warn("codetrack.ownership.legacy-owner names unknown user '{}'", legacyOwner);
+                return null;
+            }
+            return ids.get(0);
+        }
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id LIMIT 2", Long.class);
+        return ids.size() == 1 ? ids.get(0) : null;
+    }
+}
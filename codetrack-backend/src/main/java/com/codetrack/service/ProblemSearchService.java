@@ -0,0 +1,201 @@
+package com.codetrack.service;
+
+import com.codetrack.entity.Approach;
+import com.codetrack.entity.Problem;
+import com.codetrack.util.CompressedText;
+import com.codetrack.util.InvertedIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static com.codetrack.util.TransactionUtil.afterCommit;
+
+/**
+ * Keeps one full-text {@link InvertedIndex} per problem owner in sync with the database, so a
+ * search only ever touches the searching user's problems. Rebuilt from three plain scans on
+ * startup, then updated after each committed write.
+ * <p>
+ * Writes that commit while a rebuild is reading are queued and replayed onto the swapped-in
+ * indexes; putting or removing a document twice is harmless, so replaying one the load already
+ * saw changes nothing.
+ */
+@Service
+public class ProblemSearchService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ProblemSearchService.class);
+    
+    private static final float TITLE_WEIGHT = 5f;
+    private static final float TAG_WEIGHT = 3f;
+    private static final float PATTERN_WEIGHT = 3f;
+    private static final float NOTES_WEIGHT = 1f;
+    private static final float APPROACH_NOTES_WEIGHT = 1f;
+    private static final float APPROACH_CODE_WEIGHT = 0.5f;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private final ConcurrentHashMap<Long, InvertedIndex> indexes = new ConcurrentHashMap<>();
+    
+    // Guarded by this; non-null while at least one rebuild is running
+    private List<Update> committedDuringRebuild;
+    private int rebuildsRunning;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int queued = startRebuild();
+        try {
+            Map<Long, InvertedIndex> rebuilt = load("WHERE p.owner_id IS NOT NULL");
+            synchronized (this) {
+                indexes.keySet().retainAll(rebuilt.keySet());
+                indexes.putAll(rebuilt);
+                replay(queued, null);
+            }
+            log.info("Search index rebuilt: {} problems of {} users",
+                    rebuilt.values().stream().mapToInt(InvertedIndex::size).sum(), rebuilt.size());
+        } finally {
+            finishRebuild();
+        }
+    }
+    
+    /**
+     * Rebuilds one owner's index, e.g. after an import replaced their problems.
+     */
+    public void rebuild(Long ownerId) {
+        int queued = startRebuild();
+        try {
+            InvertedIndex rebuilt = load("WHERE p.owner_id = ?", ownerId).get(ownerId);
+            synchronized (this) {
+                indexes.put(ownerId, rebuilt != null ? rebuilt : new InvertedIndex());
+                replay(queued, ownerId);
+            }
+        } finally {
+            finishRebuild();
+        }
+    }
+    
+    // Returns where this rebuild's share of the queue starts
+    private synchronized int startRebuild() {
+        if (rebuildsRunning++ == 0) {
+            committedDuringRebuild = new ArrayList<>();
+        }
+        return committedDuringRebuild.size();
+    }
+    
+    private synchronized void finishRebuild() {
+        if (--rebuildsRunning == 0) {
+            committedDuringRebuild = null;
+        }
+    }
+    
+    // Caller holds the monitor; a null owner replays every owner's writes
+    private void replay(int from, Long ownerId) {
+        for (Update update : committedDuringRebuild.subList(from, committedDuringRebuild.size())) {
+            if (ownerId == null || ownerId.equals(update.ownerId)) {
+                update.change.accept(indexFor(update.ownerId));
+            }
+        }
+    }
+    
+    private synchronized void apply(Long ownerId, Consumer<InvertedIndex> change) {
+        if (committedDuringRebuild != null) {
+            committedDuringRebuild.add(new Update(ownerId, change));
+        }
+        change.accept(indexFor(ownerId));
+    }
+    
+    private InvertedIndex indexFor(Long ownerId) {
+        return indexes.computeIfAbsent(ownerId, k -> new InvertedIndex());
+    }
+    
+    private record Update(Long ownerId, Consumer<InvertedIndex> change) {
+    }
+    
+    private Map<Long, InvertedIndex> load(String filter, Object... args) {
+        Map<Long, Long> owners = new HashMap<>();
+        Map<Long, List<InvertedIndex.Field>> documents = new HashMap<>();
+        jdbcTemplate.query("SELECT p.id, p.owner_id, p.title, p.pattern, p.notes FROM problems p " + filter, rs -> {
+            owners.put(rs.getLong(1), rs.getLong(2));
+            List<InvertedIndex.Field> fields = documents.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>());
+            fields.add(new InvertedIndex.Field(rs.getString(3), TITLE_WEIGHT));
+            fields.add(new InvertedIndex.Field(rs.getString(4), PATTERN_WEIGHT));
+            fields.add(new InvertedIndex.Field(CompressedText.decode(rs.getString(5)), NOTES_WEIGHT));
+        }, args);
+        jdbcTemplate.query("SELECT t.problem_id, t.tag FROM problem_tags t JOIN problems p ON p.id = t.problem_id " + filter, rs -> {
+            List<InvertedIndex.Field> fields = documents.get(rs.getLong(1));
+            if (fields != null) {
+                fields.add(new InvertedIndex.Field(rs.getString(2), TAG_WEIGHT));
+            }
+        }, args);
+        jdbcTemplate.query("SELECT a.problem_id, a.notes, a.code FROM problem_approaches a " +
+                "JOIN problems p ON p.id = a.problem_id " + filter, rs -> {
+            List<InvertedIndex.Field> fields = documents.get(rs.getLong(1));
+            if (fields != null) {
+                fields.add(new InvertedIndex.Field(CompressedText.decode(rs.getString(2)), APPROACH_NOTES_WEIGHT));
+                fields.add(new InvertedIndex.Field(CompressedText.decode(rs.getString(3)), APPROACH_CODE_WEIGHT));
+            }
+        }, args);
+        
+        Map<Long, InvertedIndex> loaded = new HashMap<>();
+        for (Map.Entry<Long, List<InvertedIndex.Field>> document : documents.entrySet()) {
+            loaded.computeIfAbsent(owners.get(document.getKey()), k -> new InvertedIndex())
+                    .put(document.getKey(), document.getValue());
+        }
+        return loaded;
+    }
+    
+    /**
+     * (Re)indexes a problem once the surrounding transaction commits.
+     */
+    public void index(Problem problem) {
+        List<String> approachNotes = new ArrayList<>();
+        List<String> approachCode = new ArrayList<>();
+        if (problem.getApproaches() != null) {
+            for (Approach approach : problem.getApproaches()) {
+                approachNotes.add(approach.getNotes());
+                approachCode.add(approach.getCode());
+            }
+        }
+        index(problem.getOwnerId(), problem.getId(), problem.getTitle(), problem.getPattern(), problem.getNotes(),
+                problem.getTags(), approachNotes, approachCode);
+    }
+    
+    public void index(Long ownerId, Long id, String title, String pattern, String notes, List<String> tags,
+                      List<String> approachNotes, List<String> approachCode) {
+        List<InvertedIndex.Field> fields = new ArrayList<>();
+        fields.add(new InvertedIndex.Field(title, TITLE_WEIGHT));
+        fields.add(new InvertedIndex.Field(pattern, PATTERN_WEIGHT));
+        fields.add(new InvertedIndex.Field(notes, NOTES_WEIGHT));
+        if (tags != null) {
+            for (String tag : tags) {
+                fields.add(new InvertedIndex.Field(tag, TAG_WEIGHT));
+            }
+        }
+        for (String text : approachNotes) {
+            fields.add(new InvertedIndex.Field(text, APPROACH_NOTES_WEIGHT));
+        }
+        for (String text : approachCode) {
+            fields.add(new InvertedIndex.Field(text, APPROACH_CODE_WEIGHT));
+        }
+        afterCommit(() -> apply(ownerId, index -> index.put(id, fields)));
+    }
+    
+    public void remove(Long ownerId, Long id) {
+        afterCommit(() -> apply(ownerId, index -> index.remove(id)));
+    }
+    
+    public List<InvertedIndex.Hit> search(Long ownerId, String query) {
+        InvertedIndex index = indexes.get(ownerId);
+        return index != null ? index.search(query) : List.of();
+    }
+}
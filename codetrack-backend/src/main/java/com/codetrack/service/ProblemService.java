@@ -1,47 +1,390 @@
 package com.codetrack.service;
 
+import com.codetrack.dto.ApproachDTO;
+import com.codetrack.dto.ProblemChangesDTO;
+import com.codetrack.dto.BulkRevisionItemDTO;
+import com.codetrack.dto.BulkRevisionResultDTO;
 import com.codetrack.dto.ProblemDTO;
+import com.codetrack.dto.ProblemPageDTO;
+import com.codetrack.dto.ProblemSearchResultDTO;
+import com.codetrack.dto.ProblemStatsDTO;
+import com.codetrack.dto.ProblemSummaryDTO;
+import com.codetrack.dto.SolvedDateDTO;
 import com.codetrack.dto.RevisionDTO;
 import com.codetrack.entity.Approach;
 import com.codetrack.entity.Problem;
+import com.codetrack.entity.ProblemTombstone;
 import com.codetrack.entity.SolvedDate;
 import com.codetrack.repository.ProblemRepository;
+import com.codetrack.repository.ProblemTombstoneRepository;
+import com.codetrack.repository.SolvedDateRepository;
+import com.codetrack.util.InvertedIndex;
+import com.codetrack.util.ProblemCursor;
+import com.codetrack.util.RevisionValidator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "codetrack.service", description = "Service method latency")
 @Transactional
 public class ProblemService {
     
+    private static final Logger log = LoggerFactory.getLogger(ProblemService.class);
+    
+    public static final String SORT_CREATED_AT = "createdAt";
+    public static final String SORT_LAST_REVISED = "lastRevised";
+    public static final String SORT_PRIORITY = "priority";
+    
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    
+    public static final int DEFAULT_DUE_LIMIT = 20;
+    
+    static final int DEFAULT_REVISION_INTERVAL = 7;
+    
+    // Fields a client may set through PUT or PATCH; everything else is derived or read-only
+    private static final Set<String> EDITABLE_FIELDS = Set.of(
+            "title", "pattern", "difficulty", "platform", "link", "notes",
+            "tags", "priority", "revisionInterval", "approaches");
+    
+    // Rows converted per persistence-context flush during export; matches @BatchSize on Problem
+    private static final int EXPORT_CHUNK_SIZE = 100;
+    
     @Autowired
     private ProblemRepository problemRepository;
     
-    public List<ProblemDTO> getAllProblems() {
-        return problemRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Autowired
+    private SolvedDateRepository solvedDateRepository;
+    
+    @Autowired
+    private ProblemTombstoneRepository problemTombstoneRepository;
+    
+    @Autowired
+    private ActivityService activityService;
+    
+    @Autowired
+    private ProblemSearchService problemSearchService;
+    
+    @Autowired
+    private DataVersionService dataVersionService;
+    
+    @Autowired
+    private ChangeVersionService changeVersionService;
+    
+    @Autowired
+    private EntityCacheService entityCacheService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${codetrack.stats.budget-ms:250}")
+    private long statsBudgetMs;
+    
+    /**
+     * Unpaginated listing of the owner's problems, kept for clients that still call GET /api/problems
+     * without a limit or cursor.
+     */
+    @Transactional(readOnly = true)
+    public List<ProblemDTO> getAllProblems(Long ownerId) {
+        List<Problem> problems = problemRepository.findAllByOwner(ownerId);
+        List<ProblemDTO> result = new ArrayList<>(problems.size());
+        for (Problem problem : problems) {
+            result.add(convertToDTO(problem));
+        }
+        return result;
+    }
+    
+    /**
+     * Keyset-paginated listing of summaries. One row past the limit is fetched to detect further
+     * pages; the tags of the page come from one more query. Notes, approaches and revision history
+     * are never read.
+     */
+    @Transactional(readOnly = true)
+    public ProblemPageDTO getProblemsPage(Long ownerId, String sort, String cursor, Integer limit) {
+        ProblemCursor after = cursor != null && !cursor.isBlank() ? ProblemCursor.decode(cursor) : null;
+        String sortKey = sort != null && !sort.isBlank() ? sort : (after != null ? after.getSort() : SORT_CREATED_AT);
+        if (after != null && !after.getSort().equals(sortKey)) {
+            throw new IllegalArgumentException("Cursor was issued for sort '" + after.getSort() + "'");
+        }
+        
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        
+        List<ProblemSummaryDTO> rows;
+        switch (sortKey) {
+            case SORT_CREATED_AT:
+                rows = after == null
+                        ? problemRepository.findPageByCreatedAt(ownerId, pageable)
+                        : problemRepository.findPageByCreatedAtAfter(ownerId, after.getKeyAsDateTime(), after.getId(), pageable);
+                break;
+            case SORT_LAST_REVISED:
+                rows = after == null
+                        ? problemRepository.findPageByLastRevised(ownerId, pageable)
+                        : problemRepository.findPageByLastRevisedAfter(ownerId, after.getKeyAsDateTime(), after.getId(), pageable);
+                break;
+            case SORT_PRIORITY:
+                rows = after == null
+                        ? problemRepository.findPageByPriority(ownerId, pageable)
+                        : problemRepository.findPageByPriorityAfter(ownerId, after.getKeyAsInt(), after.getId(), pageable);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported sort: " + sortKey);
+        }
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<ProblemSummaryDTO> items = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+        fillTags(ownerId, items);
+        
+        String nextCursor = null;
+        if (hasMore) {
+            ProblemSummaryDTO last = items.get(items.size() - 1);
+            nextCursor = new ProblemCursor(sortKey, sortKeyOf(last, sortKey), last.getId()).encode();
+        }
+        return new ProblemPageDTO(items, nextCursor, hasMore);
+    }
+    
+    /**
+     * Full-text search over title, notes, tags, pattern and approaches, served from the in-memory
+     * index; only summaries of the requested page are loaded from the database.
+     */
+    @Transactional(readOnly = true)
+    public ProblemSearchResultDTO searchProblems(Long ownerId, String query, Integer page, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query must not be empty");
+        }
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        
+        List<InvertedIndex.Hit> hits = problemSearchService.search(ownerId, query);
+        int from = (int) Math.min((long) pageNumber * pageSize, hits.size());
+        int to = Math.min(from + pageSize, hits.size());
+        List<Long> ids = new ArrayList<>(to - from);
+        for (InvertedIndex.Hit hit : hits.subList(from, to)) {
+            ids.add(hit.getId());
+        }
+        
+        Map<Long, ProblemSummaryDTO> byId = new HashMap<>(ids.size() * 2);
+        if (!ids.isEmpty()) {
+            for (ProblemSummaryDTO summary : problemRepository.findSummariesByIds(ownerId, ids)) {
+                byId.put(summary.getId(), summary);
+            }
+        }
+        List<ProblemSummaryDTO> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProblemSummaryDTO summary = byId.get(id);
+            if (summary != null) {
+                items.add(summary);
+            }
+        }
+        fillTags(ownerId, items);
+        return new ProblemSearchResultDTO(query, hits.size(), pageNumber, pageSize, items);
+    }
+    
+    private void fillTags(Long ownerId, List<ProblemSummaryDTO> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Map<Long, ProblemSummaryDTO> byId = new HashMap<>(items.size() * 2);
+        for (ProblemSummaryDTO item : items) {
+            byId.put(item.getId(), item);
+        }
+        for (Object[] row : problemRepository.findTagsByIds(ownerId, byId.keySet())) {
+            byId.get((Long) row[0]).getTags().add((String) row[1]);
+        }
+    }
+    
+    /**
+     * Approach bodies of one problem, for clients that list summaries and fetch details on demand.
+     * Usually served from the second-level cache.
+     */
+    @Transactional(readOnly = true)
+    public List<ApproachDTO> getApproaches(Long ownerId, Long id) {
+        Problem problem = findOwned(ownerId, id);
+        return toApproachDTOs(problem.getApproaches());
+    }
+    
+    /**
+     * Dashboard statistics computed in the database: one totals query plus one GROUP BY per facet,
+     * so the payload and the number of queries do not depend on how many problems there are.
+     */
+    @Transactional(readOnly = true)
+    public ProblemStatsDTO getStatistics(Long ownerId, String difficulty, String pattern, String priority, String tag) {
+        long start = System.nanoTime();
+        ProblemStatsDTO stats = new ProblemStatsDTO();
+        
+        Object[] totals = problemRepository.statsTotals(ownerId, LocalDateTime.now(), difficulty, pattern, priority, tag).get(0);
+        long total = toLong(totals[0]);
+        long ratingSum = toLong(totals[2]);
+        long ratingCount = toLong(totals[3]);
+        stats.setTotal(total);
+        stats.setTotalTimeSpent(toLong(totals[1]));
+        stats.setNeedsRevision(toLong(totals[4]));
+        stats.setAverageTimeSpent(total == 0 ? 0.0 : Math.round(stats.getTotalTimeSpent() * 10.0 / total) / 10.0);
+        stats.setAverageRating(ratingCount == 0 ? 0.0 : Math.round(ratingSum * 10.0 / ratingCount) / 10.0);
+        
+        stats.setByDifficulty(toCounts(problemRepository.countByDifficulty(ownerId, difficulty, pattern, priority, tag)));
+        stats.setByPattern(toCounts(problemRepository.countByPattern(ownerId, difficulty, pattern, priority, tag)));
+        stats.setByPriority(toCounts(problemRepository.countByPriority(ownerId, difficulty, pattern, priority, tag)));
+        stats.setByTag(toCounts(problemRepository.countByTag(ownerId, difficulty, pattern, priority, tag)));
+        
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        if (elapsedMs > statsBudgetMs) {
+            log.warn("Statistics took {} ms for {} problems (budget {} ms)", elapsedMs, total, statsBudgetMs);
+        }
+        return stats;
     }
     
-    public ProblemDTO getProblemById(Long id) {
-        Problem problem = problemRepository.findById(id)
+    private Map<String, Long> toCounts(List<Object[]> rows) {
+        Map<String, Long> counts = new LinkedHashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            String key = row[0] != null ? row[0].toString() : "Unspecified";
+            counts.merge(key, toLong(row[1]), Long::sum);
+        }
+        return counts;
+    }
+    
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+    
+    /**
+     * Problems whose next revision is due, most overdue first.
+     */
+    @Transactional(readOnly = true)
+    public List<ProblemDTO> getDueProblems(Long ownerId, Integer limit) {
+        int size = limit == null ? DEFAULT_DUE_LIMIT : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Problem> due = problemRepository.findDue(ownerId, LocalDateTime.now(), PageRequest.of(0, size));
+        List<ProblemDTO> items = new ArrayList<>(due.size());
+        for (Problem problem : due) {
+            items.add(convertToDTO(problem));
+        }
+        return items;
+    }
+    
+    /**
+     * Writes every problem of the owner to {@code out} as newline-delimited JSON, reading from a forward-only cursor.
+     * Rows are converted in chunks so their collections are batch-fetched, then detached,
+     * keeping memory flat regardless of how many problems exist.
+     *
+     * @return the number of problems written
+     */
+    @Transactional(readOnly = true)
+    public int exportProblems(Long ownerId, OutputStream out) throws IOException {
+        int count = 0;
+        try (Stream<Problem> stream = problemRepository.streamAllForExport(ownerId);
+             SequenceWriter writer = objectMapper.writer()
+                     .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .withRootValueSeparator("\n")
+                     .writeValues(out)) {
+            List<Problem> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            Iterator<Problem> it = stream.iterator();
+            while (it.hasNext()) {
+                chunk.add(it.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE || !it.hasNext()) {
+                    for (Problem problem : chunk) {
+                        writer.write(convertToDTO(problem));
+                    }
+                    count += chunk.size();
+                    chunk.clear();
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+            if (count > 0) {
+                out.write('\n');
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Problems created, updated or deleted after change version {@code since}, up to the current
+     * high-water mark. {@code since} of 0, or one the server does not know (ahead of it, e.g. after
+     * a database reset), yields a full resync: every problem and no deletions. Versions are global,
+     * so a client may see gaps; only its own problems and tombstones are returned.
+     */
+    @Transactional(readOnly = true)
+    public ProblemChangesDTO getChanges(Long ownerId, Long since) {
+        long upTo = changeVersionService.highWaterMark();
+        long from = since == null || since < 0 || since > upTo ? 0 : since;
+        boolean full = from == 0;
+        
+        List<Problem> changed = problemRepository.findChangedBetween(ownerId, from, upTo);
+        List<ProblemDTO> items = new ArrayList<>(changed.size());
+        for (Problem problem : changed) {
+            items.add(convertToDTO(problem));
+        }
+        List<Long> deleted = full ? new ArrayList<>() : problemTombstoneRepository.findDeletedIds(ownerId, from, upTo);
+        return new ProblemChangesDTO(from, upTo, full, items, deleted);
+    }
+    
+    @Transactional(readOnly = true)
+    public ProblemDTO getProblemById(Long ownerId, Long id) {
+        return convertToDTO(findOwned(ownerId, id));
+    }
+    
+    /**
+     * Loads by primary key, usually from the second-level cache, and checks the owner in memory.
+     * Another user's problem is reported exactly like a missing one.
+     */
+    private Problem findOwned(Long ownerId, Long id) {
+        return problemRepository.findById(id)
+                .filter(problem -> ownerId.equals(problem.getOwnerId()))
                 .orElseThrow(() -> new RuntimeException("Problem not found with id: " + id));
-        return convertToDTO(problem);
     }
     
-    public ProblemDTO createProblem(ProblemDTO problemDTO) {
+    public ProblemDTO createProblem(Long ownerId, ProblemDTO problemDTO) {
         Problem problem = convertToEntity(problemDTO);
+        problem.setOwnerId(ownerId);
         problem.setCreatedAt(LocalDateTime.now());
         problem.setRevisionCount(0);
         problem.setTotalTimeSpent(0);
         problem.setAverageRating(0.0);
+        problem.setRatingSum(0);
+        problem.setRatingCount(0);
+        problem.setNextRevisionDue(nextRevisionDue(null, problem.getCreatedAt(), problem.getRevisionInterval()));
+        problem.setLastActivityAt(problem.getCreatedAt());
+        problem.setPriorityRank(priorityRank(problem.getPriority()));
+        problem.setChangeVersion(changeVersionService.currentTransactionVersion());
         
         // Add initial solved date
         if (problemDTO.getSolvedDates() == null || problemDTO.getSolvedDates().isEmpty()) {
@@ -52,79 +395,391 @@ public class ProblemService {
         }
         
         Problem saved = problemRepository.save(problem);
+        for (SolvedDate solvedDate : saved.getSolvedDates()) {
+            activityService.recordRevision(ownerId, solvedDate.getDate(), solvedDate.getTimeSpent(), solvedDate.getRating());
+        }
+        problemSearchService.index(saved);
+        dataVersionService.bump(ownerId);
         return convertToDTO(saved);
     }
     
-    public ProblemDTO updateProblem(Long id, ProblemDTO problemDTO) {
-        Problem problem = problemRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Problem not found with id: " + id));
+    /**
+     * Full update (PUT): every editable field is replaced, except that a missing approaches list
+     * keeps the current approaches. Revision history is preserved.
+     */
+    public ProblemDTO updateProblem(Long ownerId, Long id, ProblemDTO problemDTO) {
+        Set<String> fields = new HashSet<>(EDITABLE_FIELDS);
+        if (problemDTO.getApproaches() == null) {
+            fields.remove("approaches");
+        }
+        return applyEdit(ownerId, id, problemDTO, fields);
+    }
+    
+    /**
+     * Partial update (PATCH, JSON merge patch): only the fields present in {@code patch} change;
+     * an explicit null clears an optional field or empties a list.
+     */
+    public ProblemDTO patchProblem(Long ownerId, Long id, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Patch must be a JSON object");
+        }
+        Set<String> fields = new HashSet<>();
+        Iterator<String> names = patch.fieldNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            if (EDITABLE_FIELDS.contains(name)) {
+                fields.add(name);
+            } else if (!name.equals("id")) {
+                throw new IllegalArgumentException("Field cannot be patched: " + name);
+            }
+        }
+        ProblemDTO values = objectMapper.convertValue(patch, ProblemDTO.class);
+        return applyEdit(ownerId, id, values, fields);
+    }
+    
+    /**
+     * Applies {@code fields} of {@code values} to the problem. Unchanged fields are not touched and
+     * lists are edited in place (see {@link #mergeList}), so Hibernate writes only the rows that
+     * differ; an edit that changes nothing writes nothing.
+     */
+    private ProblemDTO applyEdit(Long ownerId, Long id, ProblemDTO values, Set<String> fields) {
+        Problem problem = findOwned(ownerId, id);
         
-        // Update fields (preserve revision history)
-        problem.setTitle(problemDTO.getTitle());
-        problem.setPattern(problemDTO.getPattern());
-        problem.setDifficulty(problemDTO.getDifficulty());
-        problem.setPlatform(problemDTO.getPlatform());
-        problem.setLink(problemDTO.getLink());
-        problem.setNotes(problemDTO.getNotes());
-        problem.setTags(problemDTO.getTags());
-        problem.setPriority(problemDTO.getPriority());
-        problem.setRevisionInterval(problemDTO.getRevisionInterval());
-        
-        // Update approaches
-        if (problemDTO.getApproaches() != null) {
-            List<Approach> approaches = problemDTO.getApproaches().stream()
-                    .map(approachMap -> {
-                        Approach approach = new Approach();
-                        approach.setNotes(approachMap.get("notes") != null ? approachMap.get("notes") : "");
-                        approach.setCode(approachMap.get("code") != null ? approachMap.get("code") : "");
-                        return approach;
-                    })
-                    .collect(Collectors.toList());
-            problem.setApproaches(approaches);
+        boolean changed = false;
+        if (fields.contains("title")) {
+            changed |= assign(problem.getTitle(), required(values.getTitle(), "title"), problem::setTitle);
+        }
+        if (fields.contains("pattern")) {
+            changed |= assign(problem.getPattern(), required(values.getPattern(), "pattern"), problem::setPattern);
+        }
+        if (fields.contains("difficulty")) {
+            changed |= assign(problem.getDifficulty(), required(values.getDifficulty(), "difficulty"), problem::setDifficulty);
+        }
+        if (fields.contains("platform")) {
+            changed |= assign(problem.getPlatform(), values.getPlatform(), problem::setPlatform);
         }
+        if (fields.contains("link")) {
+            changed |= assign(problem.getLink(), values.getLink(), problem::setLink);
+        }
+        if (fields.contains("notes")) {
+            changed |= assign(problem.getNotes(), values.getNotes(), problem::setNotes);
+        }
+        if (fields.contains("priority") && assign(problem.getPriority(), values.getPriority(), problem::setPriority)) {
+            problem.setPriorityRank(priorityRank(problem.getPriority()));
+            changed = true;
+        }
+        if (fields.contains("revisionInterval")
+                && assign(problem.getRevisionInterval(), values.getRevisionInterval(), problem::setRevisionInterval)) {
+            problem.setNextRevisionDue(nextRevisionDue(problem.getLastRevised(), problem.getCreatedAt(), problem.getRevisionInterval()));
+            changed = true;
+        }
+        if (fields.contains("tags")) {
+            changed |= mergeList(problem.getTags(), values.getTags() != null ? values.getTags() : List.of());
+        }
+        if (fields.contains("approaches")) {
+            changed |= mergeList(problem.getApproaches(),
+                    values.getApproaches() != null ? toApproaches(values.getApproaches()) : List.of());
+        }
+        if (!changed) {
+            return convertToDTO(problem);
+        }
+        problem.setChangeVersion(changeVersionService.currentTransactionVersion());
         
         Problem updated = problemRepository.save(problem);
+        problemSearchService.index(updated);
+        dataVersionService.bump(ownerId);
         return convertToDTO(updated);
     }
     
-    public void deleteProblem(Long id) {
+    private static <T> boolean assign(T current, T value, Consumer<T> setter) {
+        if (Objects.equals(current, value)) {
+            return false;
+        }
+        setter.accept(value);
+        return true;
+    }
+    
+    private static <T> T required(T value, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException(field + " must not be null");
+        }
+        return value;
+    }
+    
+    /**
+     * Makes {@code current} equal to {@code target} by replacing only the positions that differ and
+     * adding or removing at the tail. On an indexed collection this becomes one UPDATE per changed
+     * position plus INSERTs/DELETEs for the difference in length, instead of delete-all + re-insert.
+     */
+    static <T> boolean mergeList(List<T> current, List<T> target) {
+        boolean changed = false;
+        int common = Math.min(current.size(), target.size());
+        for (int i = 0; i < common; i++) {
+            if (!Objects.equals(current.get(i), target.get(i))) {
+                current.set(i, target.get(i));
+                changed = true;
+            }
+        }
+        while (current.size() > target.size()) {
+            current.remove(current.size() - 1);
+            changed = true;
+        }
+        for (int i = common; i < target.size(); i++) {
+            current.add(target.get(i));
+            changed = true;
+        }
+        return changed;
+    }
+    
+    public void deleteProblem(Long ownerId, Long id) {
+        if (!problemRepository.existsByIdAndOwnerId(id, ownerId)) {
+            throw new RuntimeException("Problem not found with id: " + id);
+        }
+        activityService.forgetProblem(ownerId, id);
+        problemSearchService.remove(ownerId, id);
+        dataVersionService.bump(ownerId);
         problemRepository.deleteById(id);
+        problemTombstoneRepository.save(new ProblemTombstone(
+                id, ownerId, changeVersionService.currentTransactionVersion(), LocalDateTime.now()));
     }
     
-    public ProblemDTO markRevision(Long id, RevisionDTO revisionDTO) {
-        Problem problem = problemRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Problem not found with id: " + id));
+    /**
+     * @throws IllegalArgumentException if the date or rating is out of range
+     */
+    public ProblemDTO markRevision(Long ownerId, Long id, RevisionDTO revisionDTO) {
+        LocalDateTime now = LocalDateTime.now();
+        String invalid = RevisionValidator.checkDate(revisionDTO.getDate(), now);
+        if (invalid == null) {
+            invalid = RevisionValidator.checkRating(revisionDTO.getRating());
+        }
+        if (invalid != null) {
+            throw new IllegalArgumentException(invalid);
+        }
+        Problem problem = findOwned(ownerId, id);
         
         SolvedDate solvedDate = new SolvedDate();
-        solvedDate.setDate(revisionDTO.getDate() != null ? revisionDTO.getDate() : LocalDateTime.now());
+        solvedDate.setDate(revisionDTO.getDate() != null ? revisionDTO.getDate() : now);
         solvedDate.setTimeSpent(revisionDTO.getTimeSpent());
         solvedDate.setRating(revisionDTO.getRating());
         solvedDate.setProblem(problem);
         
-        problem.getSolvedDates().add(solvedDate);
+        // Persist the row directly; only keep the in-memory history in sync if it was already loaded
+        solvedDateRepository.save(solvedDate);
+        if (Hibernate.isInitialized(problem.getSolvedDates())) {
+            problem.getSolvedDates().add(solvedDate);
+        } else {
+            entityCacheService.evictRevisionHistory(id);
+        }
+        
         problem.setRevisionCount(problem.getRevisionCount() + 1);
         problem.setLastRevised(LocalDateTime.now());
+        problem.setLastActivityAt(problem.getLastRevised());
+        problem.setNextRevisionDue(nextRevisionDue(problem.getLastRevised(), problem.getCreatedAt(), problem.getRevisionInterval()));
+        applyRevisionAggregates(problem, revisionDTO.getTimeSpent(), revisionDTO.getRating());
+        problem.setChangeVersion(changeVersionService.currentTransactionVersion());
+        activityService.recordRevision(ownerId, solvedDate.getDate(), solvedDate.getTimeSpent(), solvedDate.getRating());
+        dataVersionService.bump(ownerId);
+        
+        Problem updated = problemRepository.save(problem);
+        // The response leaves solvedDates null rather than load the history; clients append the new entry
+        return convertToDTO(updated, Hibernate.isInitialized(updated.getSolvedDates()));
+    }
+    
+    /**
+     * Constant-time update of the running time and rating aggregates for one revision.
+     */
+    void applyRevisionAggregates(Problem problem, Integer timeSpent, Integer rating) {
+        if (timeSpent != null) {
+            problem.setTotalTimeSpent(valueOrZero(problem.getTotalTimeSpent()) + timeSpent);
+        }
+        if (rating != null) {
+            int ratingSum = valueOrZero(problem.getRatingSum()) + rating;
+            int ratingCount = valueOrZero(problem.getRatingCount()) + 1;
+            problem.setRatingSum(ratingSum);
+            problem.setRatingCount(ratingCount);
+            problem.setMinRating(problem.getMinRating() == null ? rating : Math.min(problem.getMinRating(), rating));
+            problem.setMaxRating(problem.getMaxRating() == null ? rating : Math.max(problem.getMaxRating(), rating));
+            problem.setLastRating(rating);
+            problem.setAverageRating(averageRating(ratingSum, ratingCount));
+        }
+    }
+    
+    static LocalDateTime nextRevisionDue(LocalDateTime lastRevised, LocalDateTime createdAt, Integer revisionInterval) {
+        LocalDateTime base = lastRevised != null ? lastRevised : createdAt;
+        return base.plusDays(revisionInterval != null ? revisionInterval : DEFAULT_REVISION_INTERVAL);
+    }
+    
+    static double averageRating(int ratingSum, int ratingCount) {
+        return ratingCount == 0 ? 0.0 : Math.round(ratingSum * 10.0 / ratingCount) / 10.0;
+    }
+    
+    private static int valueOrZero(Integer value) {
+        return value != null ? value : 0;
+    }
+    
+    /**
+     * Records many revisions in one transaction: one query to resolve the target ids, one JDBC batch
+     * for the new solved_dates rows and set-based updates for the counters. Items with an unknown
+     * id (or another user's), or an invalid date or rating, are reported individually and do not affect
+     * the rest of the batch.
+     */
+    public List<BulkRevisionResultDTO> markRevisions(Long ownerId, List<BulkRevisionItemDTO> items) {
+        List<BulkRevisionResultDTO> results = new ArrayList<>(items.size());
+        Set<Long> requestedIds = new HashSet<>();
+        for (BulkRevisionItemDTO item : items) {
+            if (item != null && item.getProblemId() != null) {
+                requestedIds.add(item.getProblemId());
+            }
+        }
+        Map<Long, Integer> intervals = new HashMap<>();
+        if (!requestedIds.isEmpty()) {
+            for (Object[] row : problemRepository.findRevisionIntervals(ownerId, requestedIds)) {
+                intervals.put((Long) row[0], (Integer) row[1]);
+            }
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> solvedDateRows = new ArrayList<>();
+        Map<Long, BatchAggregate> aggregates = new LinkedHashMap<>();
         
-        // Update total time spent
-        if (revisionDTO.getTimeSpent() != null) {
-            problem.setTotalTimeSpent(problem.getTotalTimeSpent() + revisionDTO.getTimeSpent());
+        for (BulkRevisionItemDTO item : items) {
+            Long problemId = item != null ? item.getProblemId() : null;
+            RevisionDTO revision = item != null && item.getRevision() != null ? item.getRevision() : new RevisionDTO();
+            if (problemId == null) {
+                results.add(new BulkRevisionResultDTO(null, false, "problemId is required"));
+                continue;
+            }
+            if (!intervals.containsKey(problemId)) {
+                results.add(new BulkRevisionResultDTO(problemId, false, "Problem not found with id: " + problemId));
+                continue;
+            }
+            String invalid = RevisionValidator.checkDate(revision.getDate(), now);
+            if (invalid == null) {
+                invalid = RevisionValidator.checkRating(revision.getRating());
+            }
+            if (invalid != null) {
+                results.add(new BulkRevisionResultDTO(problemId, false, invalid));
+                continue;
+            }
+            
+            LocalDateTime date = revision.getDate() != null ? revision.getDate() : now;
+            solvedDateRows.add(new Object[] {problemId, Timestamp.valueOf(date), revision.getTimeSpent(), revision.getRating()});
+            aggregates.computeIfAbsent(problemId, k -> new BatchAggregate()).add(revision);
+            activityService.recordRevision(ownerId, date, revision.getTimeSpent(), revision.getRating());
+            results.add(new BulkRevisionResultDTO(problemId, true, null));
         }
         
-        // Calculate average rating
-        if (revisionDTO.getRating() != null) {
-            double avgRating = problem.getSolvedDates().stream()
-                    .filter(sd -> sd.getRating() != null)
-                    .mapToInt(SolvedDate::getRating)
-                    .average()
-                    .orElse(0.0);
-            problem.setAverageRating(Math.round(avgRating * 10.0) / 10.0);
+        if (solvedDateRows.isEmpty()) {
+            return results;
         }
         
-        Problem updated = problemRepository.save(problem);
-        return convertToDTO(updated);
+        dataVersionService.bump(ownerId);
+        entityCacheService.evictProblems(aggregates.keySet());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO solved_dates (problem_id, date, time_spent, rating) VALUES (?, ?, ?, ?)",
+                solvedDateRows,
+                new int[] {Types.BIGINT, Types.TIMESTAMP, Types.INTEGER, Types.INTEGER});
+        
+        List<Object[]> counterRows = new ArrayList<>(aggregates.size());
+        List<Object[]> ratingRows = new ArrayList<>();
+        Timestamp revisedAt = Timestamp.valueOf(now);
+        long changeVersion = changeVersionService.currentTransactionVersion();
+        for (Map.Entry<Long, BatchAggregate> entry : aggregates.entrySet()) {
+            BatchAggregate agg = entry.getValue();
+            Timestamp nextDue = Timestamp.valueOf(nextRevisionDue(now, now, intervals.get(entry.getKey())));
+            counterRows.add(new Object[] {agg.revisions, agg.timeSpent, revisedAt, revisedAt, nextDue, changeVersion, entry.getKey()});
+            if (agg.ratingCount > 0) {
+                ratingRows.add(new Object[] {
+                    agg.ratingSum, agg.ratingCount,
+                    agg.ratingSum, agg.ratingCount,
+                    agg.minRating, agg.minRating,
+                    agg.maxRating, agg.maxRating,
+                    agg.lastRating,
+                    entry.getKey()
+                });
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "UPDATE problems SET revision_count = COALESCE(revision_count, 0) + ?, " +
+                "total_time_spent = COALESCE(total_time_spent, 0) + ?, last_revised = ?, last_activity_at = ?, next_revision_due = ?, " +
+                "change_version = ? WHERE id = ?",
+                counterRows);
+        
+        if (!ratingRows.isEmpty()) {
+            // average_rating comes first so it is computed from the pre-update sums on every database
+            jdbcTemplate.batchUpdate(
+                    "UPDATE problems SET " +
+                    "average_rating = ROUND((COALESCE(rating_sum, 0) + ?) * 1.0 / (COALESCE(rating_count, 0) + ?), 1), " +
+                    "rating_sum = COALESCE(rating_sum, 0) + ?, " +
+                    "rating_count = COALESCE(rating_count, 0) + ?, " +
+                    "min_rating = CASE WHEN min_rating IS NULL OR min_rating > ? THEN ? ELSE min_rating END, " +
+                    "max_rating = CASE WHEN max_rating IS NULL OR max_rating < ? THEN ? ELSE max_rating END, " +
+                    "last_rating = ? " +
+                    "WHERE id = ?",
+                    ratingRows);
+        }
+        return results;
     }
     
-    private ProblemDTO convertToDTO(Problem problem) {
+    /**
+     * Per-problem totals for one bulk revision request.
+     */
+    private static class BatchAggregate {
+        int revisions;
+        int timeSpent;
+        int ratingSum;
+        int ratingCount;
+        int minRating = Integer.MAX_VALUE;
+        int maxRating = Integer.MIN_VALUE;
+        int lastRating;
+        
+        void add(RevisionDTO revision) {
+            revisions++;
+            if (revision.getTimeSpent() != null) {
+                timeSpent += revision.getTimeSpent();
+            }
+            if (revision.getRating() != null) {
+                int rating = revision.getRating();
+                ratingSum += rating;
+                ratingCount++;
+                minRating = Math.min(minRating, rating);
+                maxRating = Math.max(maxRating, rating);
+                lastRating = rating;
+            }
+        }
+    }
+    
+    private String sortKeyOf(ProblemSummaryDTO problem, String sort) {
+        switch (sort) {
+            case SORT_LAST_REVISED:
+                return (problem.getLastRevised() != null ? problem.getLastRevised() : problem.getCreatedAt()).toString();
+            case SORT_PRIORITY:
+                return String.valueOf(priorityRank(problem.getPriority()));
+            default:
+                return problem.getCreatedAt().toString();
+        }
+    }
+    
+    // Stored as Problem.priorityRank; ProblemAggregateBackfill.BACKFILL_SORT_KEYS computes the same in SQL
+    static int priorityRank(String priority) {
+        if (priority == null) {
+            return 0;
+        }
+        switch (priority) {
+            case "Critical": return 4;
+            case "High": return 3;
+            case "Medium": return 2;
+            case "Low": return 1;
+            default: return 0;
+        }
+    }
+    
+    ProblemDTO convertToDTO(Problem problem) {
+        return convertToDTO(problem, true);
+    }
+    
+    // Without includeHistory solvedDates is left null and the revision history is not loaded
+    ProblemDTO convertToDTO(Problem problem, boolean includeHistory) {
         ProblemDTO dto = new ProblemDTO();
         dto.setId(problem.getId());
         dto.setTitle(problem.getTitle());
@@ -138,39 +793,35 @@ public class ProblemService {
         dto.setRevisionInterval(problem.getRevisionInterval());
         dto.setRevisionCount(problem.getRevisionCount());
         dto.setLastRevised(problem.getLastRevised());
+        dto.setNextRevisionDue(problem.getNextRevisionDue());
         dto.setCreatedAt(problem.getCreatedAt());
         dto.setTotalTimeSpent(problem.getTotalTimeSpent());
         dto.setAverageRating(problem.getAverageRating());
         
         // Convert solved dates
-        List<Map<String, Object>> solvedDatesList = problem.getSolvedDates().stream()
-                .map(sd -> {
-                    Map<String, Object> dateMap = new HashMap<>();
-                    dateMap.put("date", sd.getDate().toString());
-                    dateMap.put("timeSpent", sd.getTimeSpent() != null ? sd.getTimeSpent() : 0);
-                    dateMap.put("rating", sd.getRating() != null ? sd.getRating() : 0);
-                    return dateMap;
-                })
-                .collect(Collectors.toList());
-        dto.setSolvedDates(solvedDatesList);
+        if (includeHistory) {
+            List<SolvedDate> solvedDates = problem.getSolvedDates();
+            List<SolvedDateDTO> solvedDateDTOs = new ArrayList<>(solvedDates.size());
+            for (SolvedDate sd : solvedDates) {
+                solvedDateDTOs.add(new SolvedDateDTO(
+                        sd.getDate(),
+                        sd.getTimeSpent() != null ? sd.getTimeSpent() : 0,
+                        sd.getRating() != null ? sd.getRating() : 0));
+            }
+            dto.setSolvedDates(solvedDateDTOs);
+        } else {
+            dto.setSolvedDates(null);
+        }
         
         // Convert approaches
         if (problem.getApproaches() != null) {
-            List<Map<String, String>> approaches = problem.getApproaches().stream()
-                    .map(approach -> {
-                        Map<String, String> approachMap = new HashMap<>();
-                        approachMap.put("notes", approach.getNotes() != null ? approach.getNotes() : "");
-                        approachMap.put("code", approach.getCode() != null ? approach.getCode() : "");
-                        return approachMap;
-                    })
-                    .collect(Collectors.toList());
-            dto.setApproaches(approaches);
+            dto.setApproaches(toApproachDTOs(problem.getApproaches()));
         }
         
         return dto;
     }
     
-    private Problem convertToEntity(ProblemDTO dto) {
+    Problem convertToEntity(ProblemDTO dto) {
         Problem problem = new Problem();
         problem.setTitle(dto.getTitle());
         problem.setPattern(dto.getPattern());
@@ -180,22 +831,33 @@ public class ProblemService {
         problem.setNotes(dto.getNotes());
         problem.setTags(dto.getTags() != null ? dto.getTags() : new ArrayList<>());
         problem.setPriority(dto.getPriority());
-        problem.setRevisionInterval(dto.getRevisionInterval() != null ? dto.getRevisionInterval() : 7);
+        problem.setRevisionInterval(dto.getRevisionInterval() != null ? dto.getRevisionInterval() : DEFAULT_REVISION_INTERVAL);
         
         // Convert approaches
         if (dto.getApproaches() != null) {
-            List<Approach> approaches = dto.getApproaches().stream()
-                    .map(approachMap -> {
-                        Approach approach = new Approach();
-                        approach.setNotes(approachMap.get("notes") != null ? approachMap.get("notes") : "");
-                        approach.setCode(approachMap.get("code") != null ? approachMap.get("code") : "");
-                        return approach;
-                    })
-                    .collect(Collectors.toList());
-            problem.setApproaches(approaches);
+            problem.setApproaches(toApproaches(dto.getApproaches()));
         }
         
         return problem;
     }
+    
+    private static List<ApproachDTO> toApproachDTOs(List<Approach> approaches) {
+        List<ApproachDTO> result = new ArrayList<>(approaches.size());
+        for (Approach approach : approaches) {
+            result.add(new ApproachDTO(
+                    approach.getNotes() != null ? approach.getNotes() : "",
+                    approach.getCode() != null ? approach.getCode() : ""));
+        }
+        return result;
+    }
+    
+    private static List<Approach> toApproaches(List<ApproachDTO> approaches) {
+        List<Approach> result = new ArrayList<>(approaches.size());
+        for (ApproachDTO approach : approaches) {
+            result.add(new Approach(
+                    approach.notes() != null ? approach.notes() : "",
+                    approach.code() != null ? approach.code() : ""));
+        }
+        return result;
+    }
 }
-
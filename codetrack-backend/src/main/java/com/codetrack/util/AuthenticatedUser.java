@@ -0,0 +1,49 @@
+package com.codetrack.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Principal set by JwtAuthenticationFilter: the user a request acts for, taken from the token's
+ * claims so that scoping data to its owner needs no users lookup.
+ */
+public class AuthenticatedUser implements AuthenticatedPrincipal {
+    
+    private final Long id;
+    private final String username;
+    
+    public AuthenticatedUser(Long id, String username) {
+        this.id = id;
+        this.username = username;
+    }
+    
+    /**
+     * Id of the user the current request acts for.
+     *
+     * @throws ResponseStatusException (401) if the request carries no valid token
+     */
+    public static Long currentId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    @Override
+    public String getName() {
+        return username;
+    }
+    
+    @Override
+    public String toString() {
+        return username;
+    }
+}
@@ -0,0 +1,79 @@
+package com.codetrack.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * At-rest encoding for large free-text columns (problem notes, approach notes and code).
+ * Text of at least {@link #THRESHOLD} characters is deflated and stored as {@link #PREFIX} plus
+ * Base64, which keeps the column a plain TEXT column on every database; shorter or incompressible
+ * text is stored unchanged. Rows written before this encoding existed read back as they are.
+ */
+public final class CompressedText {
+    
+    // Below this, Base64 overhead eats most of the gain
+    public static final int THRESHOLD = 512;
+    
+    public static final String PREFIX = "deflate:";
+    
+    private CompressedText() {
+    }
+    
+    public static String encode(String text) {
+        if (text == null || (text.length() < THRESHOLD && !text.startsWith(PREFIX))) {
+            return text;
+        }
+        String encoded = PREFIX + Base64.getEncoder().encodeToString(deflate(text.getBytes(StandardCharsets.UTF_8)));
+        // Text that merely looks encoded must be encoded, or it would be decoded on the way back
+        return encoded.length() < text.length() || text.startsWith(PREFIX) ? encoded : text;
+    }
+    
+    public static String decode(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return stored;
+        }
+        byte[] compressed = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        return new String(inflate(compressed), StandardCharsets.UTF_8);
+    }
+    
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    private static byte[] inflate(byte[] input) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed text");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
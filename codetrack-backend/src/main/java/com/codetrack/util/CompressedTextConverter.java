@@ -0,0 +1,21 @@
+package com.codetrack.util;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Applies {@link CompressedText} to an entity attribute.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, String> {
+    
+    @Override
+    public String convertToDatabaseColumn(String attribute) {
+        return CompressedText.encode(attribute);
+    }
+    
+    @Override
+    public String convertToEntityAttribute(String dbData) {
+        return CompressedText.decode(dbData);
+    }
+}
@@ -0,0 +1,226 @@
+package com.codetrack.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compact per-day activity timeline: a bitset of active days plus parallel arrays of per-day
+ * revision counts, minutes spent and rating sums, indexed by days since the first recorded day.
+ * Updates and streak queries never touch the database; a year of activity is a few kilobytes.
+ * Days outside 1970-2199 are ignored, so one absurd date cannot size the arrays to gigabytes
+ * (the API and import reject such dates; this guards rows that predate that check).
+ */
+public class DayActivityIndex {
+    
+    private static final int INITIAL_CAPACITY = 64;
+    
+    private static final long FIRST_DAY = RevisionValidator.EARLIEST_DATE.toEpochDay();
+    private static final long LAST_DAY = LocalDate.of(2199, 12, 31).toEpochDay();
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private long baseDay = Long.MIN_VALUE; // epoch day stored at index 0, unset until the first add
+    private BitSet active = new BitSet();
+    private int[] counts = new int[0];
+    private int[] timeSpent = new int[0];
+    private int[] ratingSum = new int[0];
+    private int[] ratingCount = new int[0];
+    
+    /**
+     * Adds (or with negative values, removes) activity for one day.
+     *
+     * @return {@code false} if the day is outside the supported range and was ignored
+     */
+    public boolean add(LocalDate day, int revisions, int minutes, int ratings, int rated) {
+        long epochDay = day.toEpochDay();
+        if (epochDay < FIRST_DAY || epochDay > LAST_DAY) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            int i = indexFor(epochDay);
+            counts[i] += revisions;
+            timeSpent[i] += minutes;
+            ratingSum[i] += ratings;
+            ratingCount[i] += rated;
+            if (counts[i] > 0) {
+                active.set(i);
+            } else {
+                counts[i] = 0;
+                timeSpent[i] = 0;
+                ratingSum[i] = 0;
+                ratingCount[i] = 0;
+                active.clear(i);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Consecutive active days ending today, or ending yesterday if nothing was done today yet.
+     */
+    public int currentStreak(LocalDate today) {
+        lock.readLock().lock();
+        try {
+            if (baseDay == Long.MIN_VALUE) {
+                return 0;
+            }
+            long end = today.toEpochDay() - baseDay;
+            if (end < 0) {
+                return 0;
+            }
+            if (end >= counts.length || !active.get((int) end)) {
+                end--; // today not active (yet)
+                if (end < 0 || end >= counts.length || !active.get((int) end)) {
+                    return 0;
+                }
+            }
+            int start = active.previousClearBit((int) end);
+            return (int) end - start;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int longestStreak() {
+        lock.readLock().lock();
+        try {
+            int longest = 0;
+            int from = active.nextSetBit(0);
+            while (from >= 0) {
+                int to = active.nextClearBit(from);
+                longest = Math.max(longest, to - from);
+                from = active.nextSetBit(to);
+            }
+            return longest;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int activeDays() {
+        lock.readLock().lock();
+        try {
+            return active.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Active days within [from, to], oldest first.
+     */
+    public List<Day> range(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            List<Day> days = new ArrayList<>();
+            if (baseDay == Long.MIN_VALUE || to.isBefore(from)) {
+                return days;
+            }
+            long lo = Math.max(0, from.toEpochDay() - baseDay);
+            long hi = Math.min(counts.length - 1L, to.toEpochDay() - baseDay);
+            if (lo > hi) {
+                return days;
+            }
+            for (int i = active.nextSetBit((int) lo); i >= 0 && i <= hi; i = active.nextSetBit(i + 1)) {
+                days.add(new Day(LocalDate.ofEpochDay(baseDay + i), counts[i], timeSpent[i], ratingSum[i], ratingCount[i]));
+            }
+            return days;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            baseDay = Long.MIN_VALUE;
+            active = new BitSet();
+            counts = new int[0];
+            timeSpent = new int[0];
+            ratingSum = new int[0];
+            ratingCount = new int[0];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Caller holds the write lock; grows the arrays on either side so epochDay fits
+    private int indexFor(long epochDay) {
+        if (baseDay == Long.MIN_VALUE) {
+            baseDay = epochDay;
+            resize(0, INITIAL_CAPACITY);
+        }
+        if (epochDay < baseDay) {
+            int shift = (int) Math.max(baseDay - epochDay, counts.length / 2);
+            resize(shift, counts.length + shift);
+            baseDay -= shift;
+        }
+        long index = epochDay - baseDay;
+        if (index >= counts.length) {
+            resize(0, (int) Math.max(index + 1, counts.length * 2L));
+        }
+        return (int) index;
+    }
+    
+    private void resize(int shift, int capacity) {
+        counts = shifted(counts, shift, capacity);
+        timeSpent = shifted(timeSpent, shift, capacity);
+        ratingSum = shifted(ratingSum, shift, capacity);
+        ratingCount = shifted(ratingCount, shift, capacity);
+        if (shift > 0) {
+            BitSet moved = new BitSet(capacity);
+            for (int i = active.nextSetBit(0); i >= 0; i = active.nextSetBit(i + 1)) {
+                moved.set(i + shift);
+            }
+            active = moved;
+        }
+    }
+    
+    private static int[] shifted(int[] source, int shift, int capacity) {
+        int[] target = new int[capacity];
+        System.arraycopy(source, 0, target, shift, Math.min(source.length, capacity - shift));
+        return target;
+    }
+    
+    public static class Day {
+        private final LocalDate date;
+        private final int count;
+        private final int timeSpent;
+        private final int ratingSum;
+        private final int ratingCount;
+        
+        public Day(LocalDate date, int count, int timeSpent, int ratingSum, int ratingCount) {
+            this.date = date;
+            this.count = count;
+            this.timeSpent = timeSpent;
+            this.ratingSum = ratingSum;
+            this.ratingCount = ratingCount;
+        }
+        
+        public LocalDate getDate() {
+            return date;
+        }
+        
+        public int getCount() {
+            return count;
+        }
+        
+        public int getTimeSpent() {
+            return timeSpent;
+        }
+        
+        public int getRatingSum() {
+            return ratingSum;
+        }
+        
+        public int getRatingCount() {
+            return ratingCount;
+        }
+    }
+}
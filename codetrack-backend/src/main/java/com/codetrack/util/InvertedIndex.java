@@ -0,0 +1,272 @@
+package com.codetrack.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over weighted text fields.
+ * <p>
+ * Token postings map each token to the documents containing it with a field-weighted term
+ * frequency. A trigram index over the vocabulary (not the documents) resolves partial terms,
+ * e.g. "dijk" finds "dijkstra", without scanning every token. Queries are AND-ed across terms
+ * and ranked by tf-idf; exact token matches score higher than partial ones.
+ */
+public class InvertedIndex {
+    
+    private static final Pattern SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+    
+    private static final int MAX_TOKEN_LENGTH = 40;
+    
+    private static final float PARTIAL_MATCH_WEIGHT = 0.5f;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+    
+    /**
+     * Adds or replaces a document. Each field is {@code text} with the weight its tokens contribute.
+     */
+    public void put(long id, List<Field> fields) {
+        Map<String, Float> terms = new HashMap<>();
+        for (Field field : fields) {
+            for (String token : tokenize(field.text)) {
+                terms.merge(token, field.weight, Float::sum);
+            }
+        }
+        
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            for (Map.Entry<String, Float> term : terms.entrySet()) {
+                Map<Long, Float> docs = postings.get(term.getKey());
+                if (docs == null) {
+                    docs = new HashMap<>();
+                    postings.put(term.getKey(), docs);
+                    addTrigrams(term.getKey());
+                }
+                docs.put(id, term.getValue());
+            }
+            documents.put(id, terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            trigrams.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Ranked ids of documents matching every term of {@code query}, best first.
+     */
+    public List<Hit> search(String query) {
+        List<String> terms = new ArrayList<>(new HashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            Map<Long, Float> scores = null;
+            for (String term : terms) {
+                Map<Long, Float> termScores = scoreTerm(term, documentCount);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Float> next = new HashMap<>();
+                    Map<Long, Float> smaller = scores.size() <= termScores.size() ? scores : termScores;
+                    Map<Long, Float> larger = smaller == scores ? termScores : scores;
+                    for (Map.Entry<Long, Float> entry : smaller.entrySet()) {
+                        Float other = larger.get(entry.getKey());
+                        if (other != null) {
+                            next.put(entry.getKey(), entry.getValue() + other);
+                        }
+                    }
+                    scores = next;
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            
+            List<Hit> hits = new ArrayList<>(scores.size());
+            for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                hits.add(new Hit(entry.getKey(), entry.getValue()));
+            }
+            hits.sort((a, b) -> a.score != b.score ? Float.compare(b.score, a.score) : Long.compare(b.id, a.id));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Caller holds the read lock
+    private Map<Long, Float> scoreTerm(String term, int documentCount) {
+        Map<Long, Float> scores = new HashMap<>();
+        accumulate(scores, term, 1.0f, documentCount);
+        if (term.length() >= 3) {
+            for (String token : tokensContaining(term)) {
+                if (!token.equals(term)) {
+                    accumulate(scores, token, PARTIAL_MATCH_WEIGHT, documentCount);
+                }
+            }
+        }
+        return scores;
+    }
+    
+    private void accumulate(Map<Long, Float> scores, String token, float weight, int documentCount) {
+        Map<Long, Float> docs = postings.get(token);
+        if (docs == null) {
+            return;
+        }
+        float idf = (float) Math.log(1.0 + (double) documentCount / docs.size());
+        for (Map.Entry<Long, Float> doc : docs.entrySet()) {
+            float score = weight * idf * doc.getValue();
+            scores.merge(doc.getKey(), score, Math::max);
+        }
+    }
+    
+    private Set<String> tokensContaining(String term) {
+        Set<String> candidates = null;
+        for (String trigram : trigramsOf(term)) {
+            Set<String> tokens = trigrams.get(trigram);
+            if (tokens == null) {
+                return Collections.emptySet();
+            }
+            if (candidates == null || tokens.size() < candidates.size()) {
+                candidates = tokens;
+            }
+        }
+        if (candidates == null) {
+            return Collections.emptySet();
+        }
+        Set<String> matches = new HashSet<>();
+        for (String token : candidates) {
+            if (token.contains(term)) {
+                matches.add(token);
+            }
+        }
+        return matches;
+    }
+    
+    private void removeLocked(long id) {
+        Map<String, Float> terms = documents.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String token : terms.keySet()) {
+            Map<Long, Float> docs = postings.get(token);
+            if (docs == null) {
+                continue;
+            }
+            docs.remove(id);
+            if (docs.isEmpty()) {
+                postings.remove(token);
+                removeTrigrams(token);
+            }
+        }
+    }
+    
+    private void addTrigrams(String token) {
+        for (String trigram : trigramsOf(token)) {
+            trigrams.computeIfAbsent(trigram, k -> new HashSet<>()).add(token);
+        }
+    }
+    
+    private void removeTrigrams(String token) {
+        for (String trigram : trigramsOf(token)) {
+            Set<String> tokens = trigrams.get(trigram);
+            if (tokens != null) {
+                tokens.remove(token);
+                if (tokens.isEmpty()) {
+                    trigrams.remove(trigram);
+                }
+            }
+        }
+    }
+    
+    private static List<String> trigramsOf(String token) {
+        List<String> result = new ArrayList<>(Math.max(0, token.length() - 2));
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            result.add(token.substring(i, i + 3));
+        }
+        return result;
+    }
+    
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        for (String raw : SPLIT.split(text.toLowerCase(Locale.ROOT))) {
+            if (!raw.isEmpty() && raw.length() <= MAX_TOKEN_LENGTH) {
+                tokens.add(raw);
+            }
+        }
+        return tokens;
+    }
+    
+    public static class Field {
+        private final String text;
+        private final float weight;
+        
+        public Field(String text, float weight) {
+            this.text = text;
+            this.weight = weight;
+        }
+    }
+    
+    public static class Hit {
+        private final long id;
+        private final float score;
+        
+        public Hit(long id, float score) {
+            this.id = id;
+            this.score = score;
+        }
+        
+        public long getId() {
+            return id;
+        }
+        
+        public float getScore() {
+            return score;
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package com.codetrack.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -10,6 +19,7 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
@@ -21,8 +31,85 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}")
     private Long expiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+    
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    
+    private SecretKey signingKey;
+    
+    private JwtParser parser;
+    
+    private VerifiedTokenCache cache;
+    
+    // codetrack.jwt.verify, by outcome: answered from the cache, signature checked, or rejected
+    private Timer cachedTimer;
+    private Timer verifiedTimer;
+    private Timer rejectedTimer;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        cache = new VerifiedTokenCache(cacheMaxEntries);
+        
+        // Without a registry (e.g. in benchmarks) the global one records into nothing
+        MeterRegistry registry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+        cachedTimer = verifyTimer(registry, "cached");
+        verifiedTimer = verifyTimer(registry, "verified");
+        rejectedTimer = verifyTimer(registry, "rejected");
+        Gauge.builder("codetrack.jwt.cache.size", cache, VerifiedTokenCache::size)
+                .description("Verified tokens held in the cache")
+                .register(registry);
+        FunctionCounter.builder("codetrack.jwt.cache.evictions", cache, VerifiedTokenCache::getEvictions)
+                .description("Verified tokens dropped to stay under jwt.cache.max-entries")
+                .register(registry);
+    }
+    
+    private static Timer verifyTimer(MeterRegistry registry, String result) {
+        return Timer.builder("codetrack.jwt.verify")
+                .description("Bearer token verification")
+                .tag("result", result)
+                .register(registry);
+    }
+    
+    /**
+     * Verifies the signature and expiry of {@code token} with a single parse. Tokens seen before
+     * are answered from the cache without touching the signature again.
+     *
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public VerifiedTokenCache.VerifiedToken verify(String token) {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        String key = VerifiedTokenCache.digest(token);
+        VerifiedTokenCache.VerifiedToken verified = cache.get(key, now);
+        if (verified != null) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return verified;
+        }
+        
+        try {
+            Claims claims = extractAllClaims(token); // rejects expired tokens
+            Date exp = claims.getExpiration();
+            if (exp == null) {
+                throw new JwtException("Token has no expiration");
+            }
+            Number userId = claims.get("userId", Number.class);
+            verified = new VerifiedTokenCache.VerifiedToken(
+                    claims.getSubject(), userId != null ? userId.longValue() : null, exp.getTime());
+        } catch (RuntimeException e) {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        cache.put(key, verified, now);
+        verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return verified;
+    }
+    
+    public VerifiedTokenCache getCache() {
+        return cache;
     }
     
     public String extractUsername(String token) {
@@ -39,17 +126,11 @@ public class JwtUtil {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return parser
                 .parseSignedClaims(token)
                 .getPayload();
     }
     
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-    
     public String generateToken(String username, Long userId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
@@ -62,13 +143,17 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
     
     public Boolean validateToken(String token, String username) {
-        final String tokenUsername = extractUsername(token);
-        return (tokenUsername.equals(username) && !isTokenExpired(token));
+        try {
+            VerifiedTokenCache.VerifiedToken verified = verify(token);
+            return verified.getUsername().equals(username) && verified.getExpiresAt() > System.currentTimeMillis();
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
 }
 
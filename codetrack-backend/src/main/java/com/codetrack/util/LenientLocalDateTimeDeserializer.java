@@ -0,0 +1,43 @@
+package com.codetrack.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads revision dates written either by the backend (2024-11-15T08:00:00) or by the browser
+ * with Date.toISOString() (2024-11-15T08:00:00.000Z); the offset is dropped, not applied.
+ */
+public class LenientLocalDateTimeDeserializer extends StdScalarDeserializer<LocalDateTime> {
+    
+    public LenientLocalDateTimeDeserializer() {
+        super(LocalDateTime.class);
+    }
+    
+    @Override
+    public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            return (LocalDateTime) context.handleUnexpectedToken(LocalDateTime.class, parser);
+        }
+        String value = parser.getText().trim();
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            try {
+                return OffsetDateTime.parse(value).toLocalDateTime();
+            } catch (DateTimeParseException offsetError) {
+                return (LocalDateTime) context.handleWeirdStringValue(LocalDateTime.class, value,
+                        "expected an ISO-8601 date-time");
+            }
+        }
+    }
+}
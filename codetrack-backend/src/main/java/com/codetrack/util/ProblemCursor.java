@@ -0,0 +1,80 @@
+package com.codetrack.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for paginated problem listings.
+ * Encodes the sort the page was produced with, the sort key of the last row
+ * and its id (tie-breaker), e.g. "createdAt|2024-11-15T08:00|42".
+ */
+public class ProblemCursor {
+    
+    private final String sort;
+    private final String key;
+    private final Long id;
+    
+    public ProblemCursor(String sort, String key, Long id) {
+        this.sort = sort;
+        this.key = key;
+        this.id = id;
+    }
+    
+    public String getSort() {
+        return sort;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    /**
+     * The sort key of a date-sorted page.
+     *
+     * @throws IllegalArgumentException if the cursor was tampered with
+     */
+    public LocalDateTime getKeyAsDateTime() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+    
+    /**
+     * The sort key of a priority-sorted page.
+     *
+     * @throws IllegalArgumentException if the cursor was tampered with
+     */
+    public int getKeyAsInt() {
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+    
+    public String encode() {
+        String raw = sort + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static ProblemCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ProblemCursor(parts[0], parts[1], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
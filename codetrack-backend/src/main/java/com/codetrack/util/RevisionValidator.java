@@ -0,0 +1,43 @@
+package com.codetrack.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Limits on revision data accepted from clients and imports. Dates must lie between 1970 and the
+ * end of tomorrow (one day of slack for clients ahead of the server's time zone); ratings run
+ * from 1 to 5.
+ */
+public final class RevisionValidator {
+    
+    public static final LocalDate EARLIEST_DATE = LocalDate.of(1970, 1, 1);
+    
+    private RevisionValidator() {
+    }
+    
+    /**
+     * @return why {@code date} is rejected, or {@code null} if it is acceptable
+     */
+    public static String checkDate(LocalDateTime date, LocalDateTime now) {
+        if (date == null) {
+            return null;
+        }
+        if (date.toLocalDate().isBefore(EARLIEST_DATE)) {
+            return "Date must not be before " + EARLIEST_DATE;
+        }
+        if (date.toLocalDate().isAfter(now.toLocalDate().plusDays(1))) {
+            return "Date must not be in the future";
+        }
+        return null;
+    }
+    
+    /**
+     * @return why {@code rating} is rejected, or {@code null} if it is absent or acceptable
+     */
+    public static String checkRating(Integer rating) {
+        if (rating != null && (rating < 1 || rating > 5)) {
+            return "Rating must be between 1 and 5";
+        }
+        return null;
+    }
+}
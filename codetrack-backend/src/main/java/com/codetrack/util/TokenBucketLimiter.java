@@ -0,0 +1,110 @@
+package com.codetrack.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets per key (a user or an IP address) holding up to {@code burst} tokens and
+ * refilled at {@code tokensPerSecond}. Each bucket is a single {@code AtomicLong}: the time at
+ * which it will be full again. Taking a token advances that time by one refill interval and
+ * is refused while it lies more than {@code burst - 1} intervals ahead, so a request costs one
+ * compare-and-set and never blocks.
+ * <p>
+ * A bucket whose time has passed is full and identical to a new one, so when the map reaches
+ * {@code maxEntries} those are swept first at no cost to anyone; arbitrary ones are then
+ * dropped until a tenth of the map is free, which at worst hands those clients a fresh burst.
+ * One caller sweeps at a time; callers arriving meanwhile skip it, so the map may briefly run
+ * over {@code maxEntries} by the number of concurrent new keys.
+ */
+public class TokenBucketLimiter {
+    
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxEntries;
+    
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    
+    public TokenBucketLimiter(int burst, double tokensPerSecond, int maxEntries) {
+        if (burst < 1 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("burst must be at least 1 and tokensPerSecond positive");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / tokensPerSecond);
+        this.toleranceNanos = (burst - 1) * intervalNanos;
+        this.maxEntries = maxEntries;
+    }
+    
+    /**
+     * Takes a token from {@code key}'s bucket.
+     *
+     * @param now {@link System#nanoTime()}
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    public long tryAcquire(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxEntries && sweeping.compareAndSet(false, true)) {
+                try {
+                    evict(now);
+                } finally {
+                    sweeping.set(false);
+                }
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long from = fullAt - now > 0 ? fullAt : now;
+            long wait = from - toleranceNanos - now;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, from + intervalNanos)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+    
+    public int size() {
+        return buckets.size();
+    }
+    
+    public long getAllowed() {
+        return allowed.sum();
+    }
+    
+    public long getRejected() {
+        return rejected.sum();
+    }
+    
+    public long getEvictions() {
+        return evictions.sum();
+    }
+    
+    // Sweeps full buckets, then drops arbitrary ones until a tenth of the map is free
+    private void evict(long now) {
+        if (buckets.size() < maxEntries) {
+            return; // a sweep just finished
+        }
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<Map.Entry<String, AtomicLong>> it = buckets.entrySet().iterator();
+        while (buckets.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        evictions.add(Math.max(0, before - buckets.size()));
+    }
+}
@@ -0,0 +1,129 @@
+package com.codetrack.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified, keyed by the SHA-256
+ * digest of the token so raw tokens are never kept in memory. Entries die with the token's own
+ * expiry; when the cache is full, expired entries are swept first and then arbitrary ones are
+ * dropped, so a flood of distinct tokens can cost memory only up to {@code maxEntries}.
+ */
+public class VerifiedTokenCache {
+    
+    private final int maxEntries;
+    
+    private final ConcurrentHashMap<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+    
+    /**
+     * The cached verification result for {@code key}, or {@code null} if absent or expired.
+     */
+    public VerifiedToken get(String key, long now) {
+        VerifiedToken token = entries.get(key);
+        if (token == null) {
+            misses.increment();
+            return null;
+        }
+        if (token.getExpiresAt() <= now) {
+            entries.remove(key, token);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return token;
+    }
+    
+    public void put(String key, VerifiedToken token, long now) {
+        if (maxEntries <= 0 || token.getExpiresAt() <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(key, token);
+    }
+    
+    public void clear() {
+        entries.clear();
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+    
+    public long getHits() {
+        return hits.sum();
+    }
+    
+    public long getMisses() {
+        return misses.sum();
+    }
+    
+    public long getEvictions() {
+        return evictions.sum();
+    }
+    
+    // Sweeps expired entries, then drops arbitrary ones until a tenth of the cache is free
+    private void evict(long now) {
+        int before = entries.size();
+        entries.values().removeIf(token -> token.getExpiresAt() <= now);
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<Map.Entry<String, VerifiedToken>> it = entries.entrySet().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        evictions.add(Math.max(0, before - entries.size()));
+    }
+    
+    public static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    public static class VerifiedToken {
+        private final String username;
+        private final Long userId;
+        private final long expiresAt; // epoch millis
+        
+        public VerifiedToken(String username, Long userId, long expiresAt) {
+            this.username = username;
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+        }
+        
+        public String getUsername() {
+            return username;
+        }
+        
+        public Long getUserId() {
+            return userId;
+        }
+        
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.codetrack;
+
+import com.codetrack.entity.User;
+import com.codetrack.repository.UserRepository;
+import com.codetrack.util.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+/**
+ * Base for tests against the whole application on the dev profile's in-memory H2 database.
+ * Every subclass shares one application context, and with it the database and the
+ * second-level cache, so each test works on users of its own. Metrics are exported as in
+ * production, so the Prometheus endpoint exists.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles({"dev", "test"})
+@Import(SqlStatementCounter.class)
+public abstract class IntegrationTest {
+    
+    private static final AtomicInteger USERS = new AtomicInteger();
+    
+    @Autowired
+    protected MockMvc mockMvc;
+    
+    @Autowired
+    protected UserRepository userRepository;
+    
+    @Autowired
+    protected JwtUtil jwtUtil;
+    
+    @Autowired
+    protected SqlStatementCounter sqlStatementCounter;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    protected User createUser() {
+        int n = USERS.incrementAndGet();
+        User user = new User();
+        user.setUsername("user" + n + "-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPassword("not-a-hash");
+        user.setCreatedAt(LocalDateTime.now());
+        return userRepository.save(user);
+    }
+    
+    protected String bearer(User user) {
+        return "Bearer " + jwtUtil.generateToken(user.getUsername(), user.getId());
+    }
+    
+    // JPA's Cache.evictAll() only clears entity regions; collections would keep their ids
+    protected void evictEntityCache() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+    
+    /**
+     * Runs {@code request}, completing it on its async dispatch when the handler returned a future.
+     */
+    protected MvcResult perform(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result;
+    }
+    
+    /**
+     * Runs {@code request} with a cold second-level cache and records every statement it sends
+     * to the database, on any thread.
+     */
+    protected Recorded record(RequestBuilder request) throws Exception {
+        evictEntityCache();
+        sqlStatementCounter.start();
+        MvcResult result;
+        List<String> statements;
+        try {
+            result = perform(request);
+        } finally {
+            statements = sqlStatementCounter.stop();
+        }
+        return new Recorded(result, statements);
+    }
+    
+    /**
+     * Runs {@code request} like {@link #record} and fails, listing the statements, if it ran more than {@code budget}.
+     */
+    protected MvcResult assertBudget(int budget, RequestBuilder request) throws Exception {
+        Recorded recorded = record(request);
+        MvcResult result = recorded.result();
+        assertThat(recorded.statements())
+                .as("%s %s ran %d statements:%n%s", result.getRequest().getMethod(), result.getRequest().getRequestURI(),
+                        recorded.statements().size(), String.join("\n", recorded.statements()))
+                .hasSizeLessThanOrEqualTo(budget);
+        return result;
+    }
+    
+    protected record Recorded(MvcResult result, List<String> statements) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.codetrack;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps the application's {@link DataSource} and records every statement sent to the database
+ * while a recording is running, whichever thread runs it and whether it comes from Hibernate or
+ * {@code JdbcTemplate}. A JDBC batch counts once, as one round trip.
+ */
+public class SqlStatementCounter implements BeanPostProcessor, QueryExecutionListener {
+    
+    private final List<String> statements = new ArrayList<>();
+    
+    private volatile boolean recording;
+    
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(this)
+                    .build();
+        }
+        return bean;
+    }
+    
+    public synchronized void start() {
+        statements.clear();
+        recording = true;
+    }
+    
+    public synchronized List<String> stop() {
+        recording = false;
+        return new ArrayList<>(statements);
+    }
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (recording) {
+            String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+            synchronized (this) {
+                statements.add(execInfo.isBatch() ? "[batch] " + sql : sql);
+            }
+        }
+    }
+}
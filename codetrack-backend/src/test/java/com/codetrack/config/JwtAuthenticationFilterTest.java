@@ -0,0 +1,75 @@
+package com.codetrack.config;
+
+import com.codetrack.IntegrationTest;
+import com.codetrack.entity.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Bearer tokens are only accepted while valid, signed with the configured secret, and carrying
+ * both the username and the userId claim; everything else leaves the request unauthenticated.
+ */
+class JwtAuthenticationFilterTest extends IntegrationTest {
+    
+    // No authentication entry point is configured, so Spring Security rejects with 403
+    private static final int UNAUTHENTICATED = 403;
+    
+    @Value("${jwt.secret}")
+    private String secret;
+    
+    @Test
+    void cachedTokenIsRejectedOnceExpired() throws Exception {
+        User user = createUser();
+        // JWT expiry has second precision
+        long expiresAt = (System.currentTimeMillis() / 1000 + 2) * 1000;
+        String token = sign(secret, user.getUsername(), Map.of("userId", user.getId()), expiresAt);
+        
+        assertThat(status(token)).isEqualTo(200);
+        assertThat(status(token)).isEqualTo(200); // answered from the cache
+        Thread.sleep(expiresAt - System.currentTimeMillis() + 100);
+        
+        assertThat(status(token)).isEqualTo(UNAUTHENTICATED);
+    }
+    
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() throws Exception {
+        User user = createUser();
+        String forged = sign("another-secret-that-is-long-enough-for-hmac-sha-256", user.getUsername(),
+                Map.of("userId", user.getId()), System.currentTimeMillis() + 60_000);
+        
+        assertThat(status(forged)).isEqualTo(UNAUTHENTICATED);
+        assertThat(status(bearer(user).substring(7))).isEqualTo(200);
+    }
+    
+    @Test
+    void tokenWithoutUserIdStaysUnauthenticated() throws Exception {
+        User user = createUser();
+        // what tokens issued before the userId claim was introduced look like
+        String legacy = sign(secret, user.getUsername(), Map.of(), System.currentTimeMillis() + 60_000);
+        
+        assertThat(status(legacy)).isEqualTo(UNAUTHENTICATED);
+    }
+    
+    private int status(String token) throws Exception {
+        return perform(get("/api/problems").header("Authorization", "Bearer " + token)).getResponse().getStatus();
+    }
+    
+    private static String sign(String secret, String subject, Map<String, Object> claims, long expiresAt) {
+        return Jwts.builder()
+                .claims(claims)
+                .subject(subject)
+                .issuedAt(new Date())
+                .expiration(new Date(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
@@ -0,0 +1,69 @@
+package com.codetrack.config;
+
+import com.codetrack.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The prod layout: actuator on its own loopback-bound port, where Prometheus scrapes without a
+ * token, and nothing of it on the application port. Runs real servers on free ports.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ManagementPortTest extends IntegrationTest {
+    
+    private static final int MANAGEMENT_PORT = freePort();
+    
+    private final HttpClient client = HttpClient.newHttpClient();
+    
+    @LocalServerPort
+    private int applicationPort;
+    
+    @DynamicPropertySource
+    static void managementServer(DynamicPropertyRegistry registry) {
+        registry.add("management.server.port", () -> MANAGEMENT_PORT);
+        registry.add("management.server.address", () -> "127.0.0.1");
+    }
+    
+    @Test
+    void scrapeOnTheManagementPortNeedsNoToken() throws Exception {
+        HttpResponse<String> response = get(MANAGEMENT_PORT, "/actuator/prometheus");
+        
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("hikaricp_connections");
+    }
+    
+    @Test
+    void otherEndpointsOnTheManagementPortStayClosed() throws Exception {
+        assertThat(get(MANAGEMENT_PORT, "/actuator/metrics").statusCode()).isEqualTo(403);
+    }
+    
+    @Test
+    void applicationPortDoesNotServeTheScrape() throws Exception {
+        assertThat(get(applicationPort, "/actuator/prometheus").statusCode()).isEqualTo(403);
+    }
+    
+    private HttpResponse<String> get(int port, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.codetrack.config;
+
+import com.codetrack.IntegrationTest;
+import com.codetrack.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Without a separate management port the scrape endpoint is served on the application port,
+ * and there it needs a token like any other endpoint.
+ */
+class PrometheusEndpointTest extends IntegrationTest {
+    
+    // No authentication entry point is configured, so Spring Security rejects with 403
+    private static final int UNAUTHENTICATED = 403;
+    
+    @Test
+    void scrapeOnTheApplicationPortNeedsAToken() throws Exception {
+        User user = createUser();
+        
+        assertThat(perform(get("/actuator/prometheus")).getResponse().getStatus()).isEqualTo(UNAUTHENTICATED);
+        
+        MvcResult result = perform(get("/actuator/prometheus").header("Authorization", bearer(user)));
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        assertThat(result.getResponse().getContentAsString()).contains("hikaricp_connections");
+    }
+}
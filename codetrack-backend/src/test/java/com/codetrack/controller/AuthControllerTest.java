@@ -0,0 +1,37 @@
+package com.codetrack.controller;
+
+import com.codetrack.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * SQL statement budgets for register and login. Both hash on the password hashing pool, so
+ * the statements run off the request thread and the response arrives on an async dispatch.
+ */
+class AuthControllerTest extends IntegrationTest {
+    
+    @Test
+    void registerAndLoginStayWithinBudget() throws Exception {
+        String username = "auth-" + System.nanoTime();
+        
+        MvcResult registered = assertBudget(3, post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"" + username + "\", \"email\": \"" + username + "@example.com\", "
+                        + "\"password\": \"secret123\"}"));
+        assertThat(registered.getResponse().getContentAsString()).contains("\"token\"");
+        
+        MvcResult loggedIn = assertBudget(1, post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"" + username + "\", \"password\": \"secret123\"}"));
+        assertThat(loggedIn.getResponse().getContentAsString()).contains("\"token\"");
+    }
+    
+    @Test
+    void failedLoginStaysWithinBudget() throws Exception {
+        MvcResult result = assertBudget(1, post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"nobody-" + System.nanoTime() + "\", \"password\": \"wrong\"}"));
+        assertThat(result.getResponse().getStatus()).isEqualTo(401);
+    }
+}
@@ -0,0 +1,137 @@
+package com.codetrack.controller;
+
+import com.codetrack.IntegrationTest;
+import com.codetrack.dto.ProblemDTO;
+import com.codetrack.entity.User;
+import com.codetrack.service.ChangeVersionService;
+import com.codetrack.service.ProblemService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Delta sync over GET /api/problems/changes: a client at version {@code since} gets exactly the
+ * problems written and deleted after it, and the version it is told to continue from never
+ * skips a transaction that has not committed yet.
+ */
+class ProblemChangesTest extends IntegrationTest {
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ProblemService problemService;
+    
+    @Autowired
+    private ChangeVersionService changeVersionService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private User user;
+    
+    @BeforeEach
+    void setUp() {
+        user = createUser();
+    }
+    
+    @Test
+    void returnsOnlyWhatChangedAfterTheGivenVersion() throws Exception {
+        long untouched = create("Untouched");
+        long edited = create("Edited");
+        long deleted = create("Deleted");
+        JsonNode initial = changes(0);
+        assertThat(initial.get("full").asBoolean()).isTrue();
+        assertThat(ids(initial.get("changed"))).containsExactly(untouched, edited, deleted);
+        long since = initial.get("version").asLong();
+        
+        send(patch("/api/problems/{id}", edited).contentType(MediaType.APPLICATION_JSON).content("{\"notes\": \"new\"}"));
+        send(delete("/api/problems/{id}", deleted));
+        long created = create("Created");
+        
+        JsonNode delta = changes(since);
+        assertThat(delta.get("full").asBoolean()).isFalse();
+        assertThat(delta.get("since").asLong()).isEqualTo(since);
+        assertThat(ids(delta.get("changed"))).containsExactly(edited, created);
+        assertThat(ids(delta.get("deleted"))).containsExactly(deleted);
+        
+        JsonNode caughtUp = changes(delta.get("version").asLong());
+        assertThat(caughtUp.get("changed")).isEmpty();
+        assertThat(caughtUp.get("deleted")).isEmpty();
+    }
+    
+    @Test
+    void versionStopsBelowTransactionsStillInFlight() throws Exception {
+        long since = changes(0).get("version").asLong();
+        ProblemDTO draft = new ProblemDTO();
+        draft.setTitle("Slow");
+        draft.setPattern("Greedy");
+        draft.setDifficulty("Easy");
+        
+        long[] slow = new long[2];
+        transactionTemplate.executeWithoutResult(status -> {
+            slow[0] = problemService.createProblem(user.getId(), draft).getId();
+            slow[1] = changeVersionService.currentTransactionVersion();
+            // a later transaction commits while this one is still open
+            long fast = CompletableFuture.supplyAsync(() -> create("Fast")).join();
+            
+            JsonNode during = CompletableFuture.supplyAsync(() -> changes(since)).join();
+            assertThat(during.get("version").asLong()).isLessThan(slow[1]);
+            assertThat(ids(during.get("changed"))).doesNotContain(fast, slow[0]);
+        });
+        
+        JsonNode after = changes(since);
+        assertThat(after.get("version").asLong()).isGreaterThanOrEqualTo(slow[1]);
+        assertThat(ids(after.get("changed"))).contains(slow[0]).hasSize(2);
+    }
+    
+    private long create(String title) {
+        try {
+            MvcResult result = send(post("/api/problems").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"title\": \"" + title + "\", \"pattern\": \"Greedy\", \"difficulty\": \"Easy\"}"));
+            return json(result).get("id").asLong();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private JsonNode changes(long since) {
+        try {
+            return json(send(get("/api/problems/changes").param("since", String.valueOf(since))));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static List<Long> ids(JsonNode nodes) {
+        List<Long> ids = new ArrayList<>();
+        nodes.forEach(node -> ids.add(node.isObject() ? node.get("id").asLong() : node.asLong()));
+        return ids;
+    }
+    
+    private MvcResult send(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = perform(request.header("Authorization", bearer(user)));
+        assertThat(result.getResponse().getStatus()).as(result.getResponse().getContentAsString()).isLessThan(300);
+        return result;
+    }
+    
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
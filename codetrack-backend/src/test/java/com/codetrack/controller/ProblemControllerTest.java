@@ -0,0 +1,252 @@
+package com.codetrack.controller;
+
+import com.codetrack.IntegrationTest;
+import com.codetrack.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.options;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * SQL statement budgets for the problem endpoints, measured with a cold second-level cache
+ * against a user with {@value #PROBLEMS} problems that each have tags, approaches and
+ * revisions. A budget that only holds for a handful of problems is an N+1 query: it would be
+ * exceeded by about {@value #PROBLEMS} statements here.
+ */
+class ProblemControllerTest extends IntegrationTest {
+    
+    private static final int PROBLEMS = 10;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private User user;
+    
+    private final List<Long> ids = new ArrayList<>();
+    
+    @BeforeEach
+    void seed() throws Exception {
+        user = createUser();
+        for (int i = 0; i < PROBLEMS; i++) {
+            JsonNode created = json(send(post("/api/problems").contentType(MediaType.APPLICATION_JSON)
+                    .content(problemJson("Problem " + i))));
+            long id = created.get("id").asLong();
+            ids.add(id);
+            for (int r = 0; r < 2; r++) {
+                send(post("/api/problems/{id}/revision", id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"timeSpent\": 15, \"rating\": 4}"));
+            }
+        }
+    }
+    
+    @Test
+    void listStaysWithinBudget() throws Exception {
+        assertWithinBudget(4, get("/api/problems"));
+        assertWithinBudget(4, get("/api/problems").param("limit", "5").param("sort", "lastRevised"));
+    }
+    
+    @Test
+    void readsStayWithinBudget() throws Exception {
+        assertWithinBudget(2, get("/api/problems/search").param("q", "problem"));
+        assertWithinBudget(5, get("/api/problems/stats"));
+        assertWithinBudget(4, get("/api/problems/changes").param("since", "0"));
+        assertWithinBudget(1, get("/api/problems/due"));
+        assertWithinBudget(4, get("/api/problems/export"));
+        assertWithinBudget(4, get("/api/problems/{id}", ids.get(0)));
+        assertWithinBudget(2, get("/api/problems/{id}/approaches", ids.get(0)));
+    }
+    
+    @Test
+    void writesStayWithinBudget() throws Exception {
+        assertWithinBudget(6, post("/api/problems").contentType(MediaType.APPLICATION_JSON)
+                .content(problemJson("Another")));
+        assertWithinBudget(7, put("/api/problems/{id}", ids.get(0)).contentType(MediaType.APPLICATION_JSON)
+                .content(problemJson("Renamed")));
+        assertWithinBudget(6, patch("/api/problems/{id}", ids.get(1)).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"notes\": \"patched\", \"tags\": [\"array\", \"dp\"]}"));
+        assertWithinBudget(6, post("/api/problems/{id}/revision", ids.get(2)).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"timeSpent\": 10, \"rating\": 5}"));
+        assertWithinBudget(9 + 3, delete("/api/problems/{id}", ids.get(3))); // the cascade deletes its 3 revisions one by one
+    }
+    
+    @Test
+    void bulkRevisionsStayWithinBudget() throws Exception {
+        StringBuilder items = new StringBuilder("[");
+        for (Long id : ids) {
+            items.append(items.length() > 1 ? "," : "").append("{\"problemId\": ").append(id)
+                    .append(", \"revision\": {\"timeSpent\": 5, \"rating\": 3}}");
+        }
+        assertWithinBudget(4, post("/api/problems/revisions").contentType(MediaType.APPLICATION_JSON)
+                .content(items.append("]").toString()));
+    }
+    
+    @Test
+    void importStaysWithinBudget() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            body.append(problemJson("Imported " + i)).append('\n');
+        }
+        // one chunk: the duplicate lookup plus one JDBC batch per table, however many problems it holds
+        MvcResult result = assertWithinBudget(5, post("/api/problems/import")
+                .contentType("application/x-ndjson").content(body.toString()));
+        assertThat(json(result).get("imported").asInt()).isEqualTo(20);
+    }
+    
+    @Test
+    void unchangedDataRevalidatesWithoutTheDatabase() throws Exception {
+        String etag = send(get("/api/problems")).getResponse().getHeader("ETag");
+        assertThat(etag).isNotBlank();
+        
+        Recorded revalidated = record(get("/api/problems").header("Authorization", bearer(user)).header("If-None-Match", etag));
+        assertThat(revalidated.result().getResponse().getStatus()).isEqualTo(304);
+        assertThat(revalidated.statements()).isEmpty();
+        Recorded single = record(get("/api/problems/{id}", ids.get(1)).header("Authorization", bearer(user))
+                .header("If-None-Match", etag));
+        assertThat(single.result().getResponse().getStatus()).isEqualTo(304);
+        assertThat(single.statements()).isEmpty();
+        
+        send(patch("/api/problems/{id}", ids.get(0)).contentType(MediaType.APPLICATION_JSON).content("{\"notes\": \"changed\"}"));
+        
+        MvcResult stale = perform(get("/api/problems").header("Authorization", bearer(user)).header("If-None-Match", etag));
+        assertThat(stale.getResponse().getStatus()).isEqualTo(200);
+        assertThat(stale.getResponse().getHeader("ETag")).isNotBlank().isNotEqualTo(etag);
+    }
+    
+    @Test
+    void patchChangesOnlyTheFieldsPresent() throws Exception {
+        long id = ids.get(0);
+        
+        assertWithinBudget(6, patch("/api/problems/{id}", id).contentType("application/merge-patch+json")
+                .content("{\"title\": \"Patched\", \"platform\": null, \"tags\": [\"array\", \"dp\"]}"));
+        
+        JsonNode problem = json(send(get("/api/problems/{id}", id)));
+        assertThat(problem.get("title").asText()).isEqualTo("Patched");
+        assertThat(problem.get("platform").isNull()).isTrue();
+        assertThat(problem.get("notes").asText()).isEqualTo("notes");
+        assertThat(problem.get("tags")).extracting(JsonNode::asText).containsExactly("array", "dp");
+        assertThat(problem.get("approaches")).hasSize(2);
+        assertThat(problem.get("revisionCount").asInt()).isEqualTo(2);
+    }
+    
+    @Test
+    void patchRejectsReadOnlyFields() throws Exception {
+        MvcResult result = mockMvc.perform(patch("/api/problems/{id}", ids.get(0)).header("Authorization", bearer(user))
+                .contentType(MediaType.APPLICATION_JSON).content("{\"revisionCount\": 99}")).andReturn();
+        
+        assertThat(result.getResponse().getStatus()).isEqualTo(400);
+    }
+    
+    @Test
+    void titleOnlyEditsLeaveTheListRowsAlone() throws Exception {
+        List<String> put = recordAsUser(put("/api/problems/{id}", ids.get(0)).contentType(MediaType.APPLICATION_JSON)
+                .content(problemJson("Renamed")));
+        List<String> patch = recordAsUser(patch("/api/problems/{id}", ids.get(1)).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Renamed\"}"));
+        
+        assertThat(touching(put, "problem_tags")).isEmpty();
+        assertThat(touching(put, "problem_approaches")).isEmpty();
+        assertThat(touching(patch, "problem_tags")).isEmpty();
+        assertThat(touching(patch, "problem_approaches")).isEmpty();
+    }
+    
+    @Test
+    void changingOneTagWritesOneRow() throws Exception {
+        List<String> statements = recordAsUser(patch("/api/problems/{id}", ids.get(0)).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tags\": [\"array\", \"greedy\"]}"));
+        
+        assertThat(touching(statements, "problem_tags")).singleElement().asString().startsWithIgnoringCase("update");
+        assertThat(touching(statements, "problem_approaches")).isEmpty();
+    }
+    
+    @Test
+    void revisionDoesNotReadTheHistory() throws Exception {
+        Recorded recorded = record(post("/api/problems/{id}/revision", ids.get(0)).header("Authorization", bearer(user))
+                .contentType(MediaType.APPLICATION_JSON).content("{\"timeSpent\": 10, \"rating\": 5}"));
+        
+        assertThat(recorded.statements()).noneMatch(sql -> sql.toLowerCase().startsWith("select")
+                && sql.toLowerCase().contains("from solved_dates"));
+        JsonNode problem = json(recorded.result());
+        assertThat(problem.get("solvedDates").isNull()).isTrue();
+        assertThat(problem.get("revisionCount").asInt()).isEqualTo(3);
+        assertThat(json(send(get("/api/problems/{id}", ids.get(0)))).get("solvedDates")).hasSize(4);
+    }
+    
+    @Test
+    void putWithoutRequiredFieldsIsRejected() throws Exception {
+        MvcResult result = perform(put("/api/problems/{id}", ids.get(0)).header("Authorization", bearer(user))
+                .contentType(MediaType.APPLICATION_JSON).content("{\"title\": \"No pattern\", \"difficulty\": \"Easy\"}"));
+        
+        assertThat(result.getResponse().getStatus()).isEqualTo(400);
+        assertThat(json(send(get("/api/problems/{id}", ids.get(0)))).get("title").asText()).isEqualTo("Problem 0");
+    }
+    
+    @Test
+    void browsersMayPatchFromTheFrontend() throws Exception {
+        MvcResult preflight = mockMvc.perform(options("/api/problems/{id}", ids.get(0))
+                .header("Origin", "http://localhost:3000")
+                .header("Access-Control-Request-Method", "PATCH")
+                .header("Access-Control-Request-Headers", "authorization,content-type")).andReturn();
+        
+        assertThat(preflight.getResponse().getStatus()).isEqualTo(200);
+        assertThat(preflight.getResponse().getHeader("Access-Control-Allow-Methods")).contains("PATCH");
+        assertThat(preflight.getResponse().getHeader("Access-Control-Allow-Origin")).isEqualTo("http://localhost:3000");
+        
+        MvcResult result = send(patch("/api/problems/{id}", ids.get(0)).header("Origin", "http://localhost:3000")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"priority\": \"High\"}"));
+        assertThat(result.getResponse().getHeader("Access-Control-Allow-Origin")).isEqualTo("http://localhost:3000");
+        assertThat(json(result).get("priority").asText()).isEqualTo("High");
+    }
+    
+    // Budgets are for the seeded user's requests, which must succeed
+    private MvcResult assertWithinBudget(int budget, MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = assertBudget(budget, request.header("Authorization", bearer(user)));
+        assertThat(result.getResponse().getStatus()).as(result.getResponse().getContentAsString()).isLessThan(300);
+        return result;
+    }
+    
+    private MvcResult send(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = perform(request.header("Authorization", bearer(user)));
+        assertThat(result.getResponse().getStatus()).as(result.getResponse().getContentAsString()).isLessThan(300);
+        return result;
+    }
+    
+    private List<String> recordAsUser(MockHttpServletRequestBuilder request) throws Exception {
+        Recorded recorded = record(request.header("Authorization", bearer(user)));
+        assertThat(recorded.result().getResponse().getStatus()).isLessThan(300);
+        return recorded.statements();
+    }
+    
+    // Writes only: the reads that load the collections are not what a diff update saves
+    private static List<String> touching(List<String> statements, String table) {
+        return statements.stream()
+                .filter(sql -> !sql.regionMatches(true, 0, "select", 0, 6))
+                .filter(sql -> sql.toLowerCase().contains(table))
+                .toList();
+    }
+    
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+    
+    private static String problemJson(String title) {
+        return "{\"title\": \"" + title + "\", \"pattern\": \"Two Pointers\", \"difficulty\": \"Medium\", "
+                + "\"platform\": \"LeetCode\", \"notes\": \"notes\", \"tags\": [\"array\", \"sorting\"], "
+                + "\"approaches\": [{\"notes\": \"brute force\", \"code\": \"for (;;) {}\"}, "
+                + "{\"notes\": \"two pointers\", \"code\": \"while (i < j) {}\"}]}";
+    }
+}
@@ -0,0 +1,133 @@
+package com.codetrack.controller;
+
+import com.codetrack.IntegrationTest;
+import com.codetrack.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Every problem endpoint is scoped to the caller: another user's problem ids behave as if they
+ * did not exist, and nothing of theirs shows up in lists, search, statistics or sync.
+ */
+class ProblemIsolationTest extends IntegrationTest {
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private User owner;
+    
+    private User other;
+    
+    private final List<Long> ownerIds = new ArrayList<>();
+    
+    @BeforeEach
+    void seed() throws Exception {
+        owner = createUser();
+        other = createUser();
+        for (int i = 0; i < 3; i++) {
+            MvcResult created = expectOk(owner, post("/api/problems").contentType(MediaType.APPLICATION_JSON)
+                    .content(problemJson("Secret " + i)));
+            long id = json(created).get("id").asLong();
+            ownerIds.add(id);
+            expectOk(owner, post("/api/problems/{id}/revision", id).contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"timeSpent\": 20, \"rating\": 3}"));
+        }
+        // a tombstone for the other user's change feed to leak
+        expectOk(owner, delete("/api/problems/{id}", ownerIds.remove(2)));
+        expectOk(other, post("/api/problems").contentType(MediaType.APPLICATION_JSON).content(problemJson("Mine")));
+    }
+    
+    @Test
+    void anotherUsersProblemIsNotFound() throws Exception {
+        long id = ownerIds.get(0);
+        
+        assertThat(status(other, get("/api/problems/{id}", id))).isEqualTo(404);
+        assertThat(status(other, get("/api/problems/{id}/approaches", id))).isEqualTo(404);
+        assertThat(status(other, put("/api/problems/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                .content(problemJson("Stolen")))).isEqualTo(404);
+        assertThat(status(other, patch("/api/problems/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Stolen\"}"))).isEqualTo(404);
+        assertThat(status(other, post("/api/problems/{id}/revision", id).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"timeSpent\": 5, \"rating\": 1}"))).isEqualTo(404);
+        assertThat(status(other, delete("/api/problems/{id}", id))).isEqualTo(404);
+        
+        JsonNode problem = json(expectOk(owner, get("/api/problems/{id}", id)));
+        assertThat(problem.get("title").asText()).isEqualTo("Secret 0");
+        assertThat(problem.get("revisionCount").asInt()).isEqualTo(1);
+    }
+    
+    @Test
+    void bulkRevisionsReportAnotherUsersIdsAsNotFound() throws Exception {
+        String items = "[{\"problemId\": " + ownerIds.get(0) + ", \"revision\": {\"timeSpent\": 5, \"rating\": 3}},"
+                + "{\"problemId\": " + ownerIds.get(1) + ", \"revision\": {\"timeSpent\": 5, \"rating\": 3}}]";
+        JsonNode results = json(expectOk(other, post("/api/problems/revisions")
+                .contentType(MediaType.APPLICATION_JSON).content(items)));
+        
+        assertThat(results).hasSize(2).allSatisfy(result -> {
+            assertThat(result.get("success").asBoolean()).isFalse();
+            assertThat(result.get("error").asText()).containsIgnoringCase("not found");
+        });
+        assertThat(json(expectOk(owner, get("/api/problems/{id}", ownerIds.get(0)))).get("revisionCount").asInt())
+                .isEqualTo(1);
+    }
+    
+    @Test
+    void readsShowNoneOfAnotherUsersRows() throws Exception {
+        assertThat(titles(json(expectOk(other, get("/api/problems"))))).containsExactly("Mine");
+        assertThat(titles(json(expectOk(other, get("/api/problems").param("limit", "10")
+                .param("sort", "priority"))).get("items"))).containsExactly("Mine");
+        assertThat(json(expectOk(other, get("/api/problems/search").param("q", "secret"))).get("total").asInt())
+                .isZero();
+        assertThat(json(expectOk(other, get("/api/problems/stats"))).get("total").asLong()).isEqualTo(1);
+        assertThat(titles(json(expectOk(other, get("/api/problems/due"))))).doesNotContain("Secret 0", "Secret 1");
+        
+        JsonNode changes = json(expectOk(other, get("/api/problems/changes").param("since", "0")));
+        assertThat(titles(changes.get("changed"))).containsExactly("Mine");
+        assertThat(changes.get("deleted")).isEmpty();
+        
+        String export = expectOk(other, get("/api/problems/export")).getResponse().getContentAsString();
+        assertThat(export.lines()).hasSize(1).allSatisfy(line -> assertThat(line).contains("\"Mine\""));
+    }
+    
+    private List<String> titles(JsonNode problems) {
+        List<String> titles = new ArrayList<>();
+        problems.forEach(problem -> titles.add(problem.get("title").asText()));
+        return titles;
+    }
+    
+    private int status(User user, MockHttpServletRequestBuilder request) throws Exception {
+        return perform(request.header("Authorization", bearer(user))).getResponse().getStatus();
+    }
+    
+    private MvcResult expectOk(User user, MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = perform(request.header("Authorization", bearer(user)));
+        assertThat(result.getResponse().getStatus()).as(result.getResponse().getContentAsString()).isLessThan(300);
+        return result;
+    }
+    
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+    
+    private static String problemJson(String title) {
+        return "{\"title\": \"" + title + "\", \"pattern\": \"Sliding Window\", \"difficulty\": \"Hard\", "
+                + "\"priority\": \"High\", \"tags\": [\"string\"], "
+                + "\"approaches\": [{\"notes\": \"window\", \"code\": \"while (r < n) {}\"}]}";
+    }
+}
@@ -0,0 +1,114 @@
+package com.codetrack.controller;
+
+import com.codetrack.IntegrationTest;
+import com.codetrack.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Keyset paging: walking every page visits each problem exactly once, even when many rows share
+ * a sort key, and cursors are only accepted for the sort that issued them.
+ */
+class ProblemPagingTest extends IntegrationTest {
+    
+    private static final String[] PRIORITIES = {"High", "Low", null};
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private User user;
+    
+    private final List<Long> ids = new ArrayList<>();
+    
+    @BeforeEach
+    void seed() throws Exception {
+        user = createUser();
+        // same createdAt everywhere, never revised (lastRevised null) and three priority values
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 11; i++) {
+            String priority = PRIORITIES[i % PRIORITIES.length];
+            body.append("{\"title\": \"Tied ").append(i).append("\", \"pattern\": \"Heap\", \"difficulty\": \"Medium\", ")
+                    .append(priority != null ? "\"priority\": \"" + priority + "\", " : "")
+                    .append("\"createdAt\": \"2024-05-01T12:00:00\", \"solvedDates\": []}\n");
+        }
+        send(post("/api/problems/import").contentType("application/x-ndjson").content(body.toString()));
+        for (JsonNode problem : json(send(get("/api/problems")))) {
+            ids.add(problem.get("id").asLong());
+        }
+        assertThat(ids).hasSize(11);
+    }
+    
+    @Test
+    void walkingThePagesVisitsTiedRowsExactlyOnce() throws Exception {
+        for (String sort : new String[] {"createdAt", "lastRevised", "priority"}) {
+            List<Long> seen = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                MockHttpServletRequestBuilder request = get("/api/problems").param("limit", "3").param("sort", sort);
+                if (cursor != null) {
+                    request.param("cursor", cursor);
+                }
+                JsonNode page = json(send(request));
+                page.get("items").forEach(item -> seen.add(item.get("id").asLong()));
+                cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+                assertThat(page.get("hasMore").asBoolean()).isEqualTo(cursor != null);
+                pages++;
+            } while (cursor != null);
+            
+            assertThat(seen).as(sort).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(ids);
+            assertThat(pages).as(sort).isEqualTo(4);
+        }
+    }
+    
+    @Test
+    void cursorFromAnotherSortIsRejected() throws Exception {
+        String cursor = json(send(get("/api/problems").param("limit", "3").param("sort", "createdAt")))
+                .get("nextCursor").asText();
+        
+        assertThat(status(get("/api/problems").param("sort", "priority").param("cursor", cursor))).isEqualTo(400);
+        assertThat(status(get("/api/problems").param("sort", "createdAt").param("cursor", cursor))).isEqualTo(200);
+    }
+    
+    @Test
+    void tamperedCursorIsRejected() throws Exception {
+        assertThat(status(get("/api/problems").param("cursor", "not base64!"))).isEqualTo(400);
+        assertThat(status(get("/api/problems").param("cursor", encode("createdAt|yesterday|1")))).isEqualTo(400);
+        assertThat(status(get("/api/problems").param("cursor", encode("createdAt|2024-05-01T12:00|x")))).isEqualTo(400);
+        assertThat(status(get("/api/problems").param("cursor", encode("priority|high|1")))).isEqualTo(400);
+        assertThat(status(get("/api/problems").param("cursor", encode("title|Tied 1|1")))).isEqualTo(400);
+        assertThat(status(get("/api/problems").param("cursor", encode("createdAt")))).isEqualTo(400);
+    }
+    
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private int status(MockHttpServletRequestBuilder request) throws Exception {
+        return perform(request.header("Authorization", bearer(user))).getResponse().getStatus();
+    }
+    
+    private MvcResult send(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = perform(request.header("Authorization", bearer(user)));
+        assertThat(result.getResponse().getStatus()).as(result.getResponse().getContentAsString()).isLessThan(300);
+        return result;
+    }
+    
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,99 @@
+package com.codetrack.controller;
+
+import com.codetrack.IntegrationTest;
+import com.codetrack.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * GET /api/problems/search answers from the searching user's own index, and that index follows
+ * every committed create, edit and delete.
+ */
+class ProblemSearchTest extends IntegrationTest {
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private User user;
+    
+    @BeforeEach
+    void setUp() {
+        user = createUser();
+    }
+    
+    @Test
+    void findsOnlyTheSearchingUsersProblems() throws Exception {
+        User other = createUser();
+        long mine = create(user, "Dijkstra", "shortest path with a heap");
+        create(other, "Dijkstra", "the same problem, someone else's");
+        
+        assertThat(search(user, "dijkstra")).containsExactly(mine);
+        assertThat(search(user, "dijk heap")).containsExactly(mine);
+        assertThat(search(user, "someone")).isEmpty();
+    }
+    
+    @Test
+    void followsEditsAndDeletes() throws Exception {
+        long edited = create(user, "Sliding window maximum", null);
+        long deleted = create(user, "Sliding puzzle", null);
+        assertThat(search(user, "sliding")).containsExactlyInAnyOrder(edited, deleted);
+        
+        send(user, patch("/api/problems/{id}", edited).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"Monotonic deque\", \"notes\": \"keep indexes, not values\"}"));
+        send(user, delete("/api/problems/{id}", deleted));
+        
+        assertThat(search(user, "sliding")).isEmpty();
+        assertThat(search(user, "deque")).containsExactly(edited);
+        assertThat(search(user, "indexes")).containsExactly(edited);
+    }
+    
+    @Test
+    void rejectsABlankQuery() throws Exception {
+        MvcResult result = perform(get("/api/problems/search").param("q", " ").header("Authorization", bearer(user)));
+        
+        assertThat(result.getResponse().getStatus()).isEqualTo(400);
+    }
+    
+    private long create(User owner, String title, String notes) throws Exception {
+        String body = objectMapper.createObjectNode()
+                .put("title", title)
+                .put("pattern", "Graph")
+                .put("difficulty", "Medium")
+                .put("notes", notes)
+                .toString();
+        return json(send(owner, post("/api/problems").contentType(MediaType.APPLICATION_JSON).content(body)))
+                .get("id").asLong();
+    }
+    
+    private List<Long> search(User owner, String query) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        json(send(owner, get("/api/problems/search").param("q", query))).get("items")
+                .forEach(item -> ids.add(item.get("id").asLong()));
+        return ids;
+    }
+    
+    private MvcResult send(User owner, MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = perform(request.header("Authorization", bearer(owner)));
+        assertThat(result.getResponse().getStatus()).as(result.getResponse().getContentAsString()).isLessThan(300);
+        return result;
+    }
+    
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,180 @@
+package com.codetrack.service;
+
+import com.codetrack.IntegrationTest;
+import com.codetrack.entity.Problem;
+import com.codetrack.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Every write path leaves the second-level cache consistent: each test first reads a problem
+ * so that it and its tags, approaches and revisions are cached, writes through one path
+ * (Hibernate or JDBC), and then expects the next read to see the new entity and collection state.
+ */
+class EntityCacheServiceTest extends IntegrationTest {
+    
+    private static final String TAGS_ROLE = Problem.class.getName() + ".tags";
+    private static final String SOLVED_DATES_ROLE = Problem.class.getName() + ".solvedDates";
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private User user;
+    
+    private long id;
+    
+    @BeforeEach
+    void createProblem() throws Exception {
+        user = createUser();
+        id = json(send(post("/api/problems").contentType(MediaType.APPLICATION_JSON)
+                .content(problemJson("Cached", "https://example.com/cached", "[\"array\"]")))).get("id").asLong();
+    }
+    
+    @Test
+    void updateIsVisibleThroughTheCache() throws Exception {
+        warm();
+        
+        send(put("/api/problems/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                .content(problemJson("Updated", "https://example.com/cached", "[\"graph\", \"bfs\"]")));
+        
+        JsonNode problem = read();
+        assertThat(problem.get("title").asText()).isEqualTo("Updated");
+        assertThat(problem.get("tags")).extracting(JsonNode::asText).containsExactly("graph", "bfs");
+        assertThat(problem.get("approaches")).extracting(a -> a.get("notes").asText()).containsExactly("Updated approach");
+    }
+    
+    @Test
+    void patchIsVisibleThroughTheCache() throws Exception {
+        warm();
+        
+        send(patch("/api/problems/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"notes\": \"patched\", \"tags\": [\"array\", \"dp\"], \"approaches\": []}"));
+        
+        JsonNode problem = read();
+        assertThat(problem.get("notes").asText()).isEqualTo("patched");
+        assertThat(problem.get("tags")).extracting(JsonNode::asText).containsExactly("array", "dp");
+        assertThat(problem.get("approaches")).isEmpty();
+    }
+    
+    @Test
+    void revisionIsVisibleThroughTheCache() throws Exception {
+        warm();
+        
+        send(post("/api/problems/{id}/revision", id).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"timeSpent\": 25, \"rating\": 4}"));
+        
+        JsonNode problem = read();
+        assertThat(problem.get("revisionCount").asInt()).isEqualTo(1);
+        assertThat(problem.get("totalTimeSpent").asInt()).isEqualTo(25);
+        assertThat(problem.get("averageRating").asDouble()).isEqualTo(4.0);
+        assertThat(problem.get("solvedDates")).hasSize(2);
+    }
+    
+    @Test
+    void bulkRevisionsAreVisibleThroughTheCache() throws Exception {
+        warm();
+        
+        // JDBC batch path: Hibernate does not see these writes, EntityCacheService evicts around them
+        send(post("/api/problems/revisions").contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"problemId\": " + id + ", \"revision\": {\"timeSpent\": 10, \"rating\": 2}}, "
+                        + "{\"problemId\": " + id + ", \"revision\": {\"timeSpent\": 30, \"rating\": 4}}]"));
+        
+        JsonNode problem = read();
+        assertThat(problem.get("revisionCount").asInt()).isEqualTo(2);
+        assertThat(problem.get("totalTimeSpent").asInt()).isEqualTo(40);
+        assertThat(problem.get("averageRating").asDouble()).isEqualTo(3.0);
+        assertThat(problem.get("solvedDates")).hasSize(3);
+        assertThat(listed().get("revisionCount").asInt()).isEqualTo(2);
+    }
+    
+    @Test
+    void deleteIsVisibleThroughTheCache() throws Exception {
+        warm();
+        
+        send(delete("/api/problems/{id}", id));
+        
+        assertThat(status(get("/api/problems/{id}", id))).isEqualTo(404);
+        assertThat(json(send(get("/api/problems")))).isEmpty();
+    }
+    
+    @Test
+    void replaceImportIsVisibleThroughTheCache() throws Exception {
+        long other = json(send(post("/api/problems").contentType(MediaType.APPLICATION_JSON)
+                .content(problemJson("Replaced", "https://example.com/replaced", "[]")))).get("id").asLong();
+        warm();
+        send(get("/api/problems/{id}", other));
+        
+        // Keeps "Cached" (same link, so a duplicate) and removes "Replaced" with JDBC deletes
+        JsonNode result = json(send(post("/api/problems/import").param("merge", "false")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + problemJson("Cached", "https://example.com/cached", "[\"array\"]") + ", "
+                        + problemJson("Imported", "https://example.com/imported", "[\"heap\"]") + "]")));
+        assertThat(result.get("removed").asInt()).isEqualTo(1);
+        
+        assertThat(status(get("/api/problems/{id}", other))).isEqualTo(404);
+        assertThat(read().get("title").asText()).isEqualTo("Cached");
+        assertThat(json(send(get("/api/problems")))).extracting(p -> p.get("title").asText())
+                .containsExactlyInAnyOrder("Cached", "Imported");
+    }
+    
+    // Reads the problem so that it and its collections are in the second-level cache
+    private void warm() throws Exception {
+        read();
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        assertThat(cache.containsEntity(Problem.class, id)).isTrue();
+        assertThat(cache.containsCollection(TAGS_ROLE, id)).isTrue();
+        assertThat(cache.containsCollection(SOLVED_DATES_ROLE, id)).isTrue();
+    }
+    
+    private JsonNode read() throws Exception {
+        return json(send(get("/api/problems/{id}", id)));
+    }
+    
+    private JsonNode listed() throws Exception {
+        for (JsonNode problem : json(send(get("/api/problems")))) {
+            if (problem.get("id").asLong() == id) {
+                return problem;
+            }
+        }
+        throw new AssertionError("Problem " + id + " is not listed");
+    }
+    
+    private MvcResult send(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request.header("Authorization", bearer(user))).andReturn();
+        assertThat(result.getResponse().getStatus()).as(result.getResponse().getContentAsString()).isLessThan(300);
+        return result;
+    }
+    
+    private int status(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.header("Authorization", bearer(user))).andReturn().getResponse().getStatus();
+    }
+    
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+    
+    private static String problemJson(String title, String link, String tags) {
+        return "{\"title\": \"" + title + "\", \"pattern\": \"BFS\", \"difficulty\": \"Medium\", \"link\": \"" + link
+                + "\", \"notes\": \"notes\", \"tags\": " + tags + ", "
+                + "\"approaches\": [{\"notes\": \"" + title + " approach\", \"code\": \"queue\"}]}";
+    }
+}
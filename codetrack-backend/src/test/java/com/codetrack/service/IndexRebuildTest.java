@@ -0,0 +1,154 @@
+package com.codetrack.service;
+
+import com.codetrack.IntegrationTest;
+import com.codetrack.dto.ActivityDayDTO;
+import com.codetrack.entity.User;
+import com.codetrack.util.InvertedIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Writes that commit after a rebuild has read the database but before it swaps its indexes in.
+ * Each test runs a fresh service whose JdbcTemplate commits such a write right after the
+ * rebuild's first query.
+ */
+class IndexRebuildTest extends IntegrationTest {
+    
+    private static final LocalDateTime REVISED_AT = LocalDateTime.of(2025, 6, 1, 12, 0);
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private final AtomicReference<Runnable> afterFirstQuery = new AtomicReference<>();
+    
+    private User user;
+    
+    @BeforeEach
+    void setUp() {
+        user = createUser();
+    }
+    
+    @Test
+    void searchReplaysWritesCommittedDuringAnOwnerRebuild() throws Exception {
+        long removed = create("Early bird");
+        ProblemSearchService search = new ProblemSearchService();
+        ReflectionTestUtils.setField(search, "jdbcTemplate", racingJdbcTemplate());
+        afterFirstQuery.set(() -> {
+            search.index(user.getId(), 1_000_000L, "Late arrival", "Greedy", null, List.of(), List.of(), List.of());
+            search.remove(user.getId(), removed);
+        });
+        
+        search.rebuild(user.getId());
+        
+        assertThat(search.search(user.getId(), "late")).extracting(InvertedIndex.Hit::getId).containsExactly(1_000_000L);
+        assertThat(search.search(user.getId(), "early")).isEmpty();
+    }
+    
+    @Test
+    void searchReplaysWritesCommittedDuringAFullRebuild() throws Exception {
+        create("Early bird");
+        ProblemSearchService search = new ProblemSearchService();
+        ReflectionTestUtils.setField(search, "jdbcTemplate", racingJdbcTemplate());
+        afterFirstQuery.set(() ->
+                search.index(user.getId(), 1_000_000L, "Late arrival", "Greedy", null, List.of(), List.of(), List.of()));
+        
+        search.rebuild();
+        
+        assertThat(search.search(user.getId(), "late")).extracting(InvertedIndex.Hit::getId).containsExactly(1_000_000L);
+        assertThat(search.search(user.getId(), "early")).hasSize(1);
+    }
+    
+    @Test
+    void activityReloadsAnOwnerWrittenToDuringTheirRebuild() throws Exception {
+        long problemId = create("Two sum");
+        ActivityService activity = new ActivityService();
+        ReflectionTestUtils.setField(activity, "jdbcTemplate", racingJdbcTemplate());
+        afterFirstQuery.set(() -> revise(activity, problemId));
+        
+        activity.rebuild(user.getId());
+        
+        // counted once: neither lost to the swap nor added on top of the reload
+        assertThat(day(activity)).singleElement().satisfies(day -> {
+            assertThat(day.getCount()).isEqualTo(1);
+            assertThat(day.getTimeSpent()).isEqualTo(10);
+        });
+    }
+    
+    @Test
+    void activityReloadsOwnersWrittenToDuringAFullRebuild() throws Exception {
+        long problemId = create("Two sum");
+        ActivityService activity = new ActivityService();
+        ReflectionTestUtils.setField(activity, "jdbcTemplate", racingJdbcTemplate());
+        afterFirstQuery.set(() -> revise(activity, problemId));
+        
+        activity.rebuild();
+        
+        assertThat(day(activity)).singleElement().satisfies(day -> assertThat(day.getCount()).isEqualTo(1));
+    }
+    
+    // Outside a transaction, so the index is updated as soon as the row is in
+    private void revise(ActivityService activity, long problemId) {
+        jdbcTemplate.update("INSERT INTO solved_dates (date, time_spent, rating, problem_id) VALUES (?, ?, ?, ?)",
+                Timestamp.valueOf(REVISED_AT), 10, 4, problemId);
+        activity.recordRevision(user.getId(), REVISED_AT, 10, 4);
+    }
+    
+    private List<ActivityDayDTO> day(ActivityService activity) {
+        LocalDate date = REVISED_AT.toLocalDate();
+        return activity.getActivity(user.getId(), date, date).getDays();
+    }
+    
+    private JdbcTemplate racingJdbcTemplate() {
+        return new JdbcTemplate(dataSource) {
+            @Override
+            public void query(String sql, RowCallbackHandler rch) {
+                super.query(sql, rch);
+                race();
+            }
+            
+            @Override
+            public void query(String sql, RowCallbackHandler rch, Object... args) {
+                super.query(sql, rch, args);
+                race();
+            }
+        };
+    }
+    
+    private void race() {
+        Runnable write = afterFirstQuery.getAndSet(null);
+        if (write != null) {
+            write.run();
+        }
+    }
+    
+    private long create(String title) throws Exception {
+        MvcResult result = perform(post("/api/problems").header("Authorization", bearer(user))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\": \"" + title + "\", \"pattern\": \"Greedy\", \"difficulty\": \"Easy\"}"));
+        assertThat(result.getResponse().getStatus()).as(result.getResponse().getContentAsString()).isLessThan(300);
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+}
@@ -0,0 +1,85 @@
+package com.codetrack.service;
+
+import com.codetrack.IntegrationTest;
+import com.codetrack.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LastLoginRecorderTest extends IntegrationTest {
+    
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 6, 1, 12, 0);
+    
+    @Autowired
+    private LastLoginRecorder lastLoginRecorder;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void flushWritesEveryPendingLoginInOneBatch() {
+        User first = createUser();
+        User second = createUser();
+        User third = createUser();
+        lastLoginRecorder.record(first.getId(), NOON);
+        lastLoginRecorder.record(first.getId(), NOON.plusMinutes(5));
+        lastLoginRecorder.record(first.getId(), NOON.plusMinutes(2)); // arrives late, older than the last one
+        lastLoginRecorder.record(second.getId(), NOON.plusHours(1));
+        lastLoginRecorder.record(third.getId(), NOON.plusHours(2));
+        
+        sqlStatementCounter.start();
+        List<String> statements;
+        try {
+            lastLoginRecorder.flush();
+        } finally {
+            statements = sqlStatementCounter.stop();
+        }
+        
+        assertThat(statements).singleElement().asString().startsWith("[batch] UPDATE users SET last_login");
+        assertThat(lastLogin(first)).isEqualTo(NOON.plusMinutes(5));
+        assertThat(lastLogin(second)).isEqualTo(NOON.plusHours(1));
+        assertThat(lastLogin(third)).isEqualTo(NOON.plusHours(2));
+    }
+    
+    @Test
+    void staleLoginNeverOverwritesANewerOne() {
+        User user = createUser();
+        jdbcTemplate.update("UPDATE users SET last_login = ? WHERE id = ?", Timestamp.valueOf(NOON), user.getId());
+        
+        lastLoginRecorder.record(user.getId(), NOON.minusDays(1));
+        lastLoginRecorder.flush();
+        assertThat(lastLogin(user)).isEqualTo(NOON);
+        
+        lastLoginRecorder.record(user.getId(), NOON.plusSeconds(1));
+        lastLoginRecorder.flush();
+        assertThat(lastLogin(user)).isEqualTo(NOON.plusSeconds(1));
+    }
+    
+    @Test
+    void closingTheContextDrainsTheBuffer() {
+        User user = createUser();
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(JdbcTemplate.class, () -> jdbcTemplate);
+            context.register(LastLoginRecorder.class);
+            context.refresh();
+            context.getBean(LastLoginRecorder.class).record(user.getId(), NOON);
+            
+            assertThat(lastLogin(user)).isNull();
+        }
+        
+        assertThat(lastLogin(user)).isEqualTo(NOON);
+    }
+    
+    private LocalDateTime lastLogin(User user) {
+        Timestamp lastLogin = jdbcTemplate.queryForObject("SELECT last_login FROM users WHERE id = ?",
+                Timestamp.class, user.getId());
+        return lastLogin != null ? lastLogin.toLocalDateTime() : null;
+    }
+}
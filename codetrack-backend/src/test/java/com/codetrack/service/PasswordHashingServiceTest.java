@@ -0,0 +1,93 @@
+package com.codetrack.service;
+
+import com.codetrack.IntegrationTest;
+import com.codetrack.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Runs on its own context: one hashing thread with a one-task queue, and a BCrypt cost one above
+ * the shared test profile's so hashes made at that cost count as outdated.
+ */
+@TestPropertySource(properties = {
+    "codetrack.auth.hash-threads=1",
+    "codetrack.auth.hash-queue-capacity=1",
+    "codetrack.auth.retry-after-seconds=3",
+    "codetrack.auth.bcrypt-strength=5"
+})
+class PasswordHashingServiceTest extends IntegrationTest {
+    
+    private static final String PASSWORD = "secret123";
+    
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    
+    @Test
+    void loginIsRefusedWithRetryAfterWhenThePoolIsFull() throws Exception {
+        User user = createUser(new BCryptPasswordEncoder(5).encode(PASSWORD));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture<Boolean> busy = passwordHashingService.submit(() -> {
+            running.countDown();
+            return await(release);
+        });
+        running.await();
+        CompletableFuture<Boolean> queued = passwordHashingService.submit(() -> true);
+        try {
+            MvcResult result = login(user);
+            
+            assertThat(result.getResponse().getStatus()).isEqualTo(503);
+            assertThat(result.getResponse().getHeader("Retry-After")).isEqualTo("3");
+            assertThat(passwordHashingService.getStats().get("rejected")).isEqualTo(1L);
+        } finally {
+            release.countDown();
+        }
+        assertThat(busy.join()).isTrue();
+        assertThat(queued.join()).isTrue();
+        assertThat(login(user).getResponse().getStatus()).isEqualTo(200);
+    }
+    
+    @Test
+    void loginRehashesPasswordsStoredWithALowerCost() throws Exception {
+        User user = createUser(new BCryptPasswordEncoder(4).encode(PASSWORD));
+        
+        assertThat(login(user).getResponse().getStatus()).isEqualTo(200);
+        
+        String rehashed = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertThat(rehashed).startsWith("$2a$05$");
+        assertThat(new BCryptPasswordEncoder(5).matches(PASSWORD, rehashed)).isTrue();
+        assertThat(login(user).getResponse().getStatus()).isEqualTo(200);
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getPassword()).isEqualTo(rehashed);
+    }
+    
+    private User createUser(String passwordHash) {
+        User user = createUser();
+        user.setPassword(passwordHash);
+        return userRepository.save(user);
+    }
+    
+    private MvcResult login(User user) throws Exception {
+        return perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"" + user.getUsername() + "\", \"password\": \"" + PASSWORD + "\"}"));
+    }
+    
+    private static boolean await(CountDownLatch latch) {
+        try {
+            latch.await();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.codetrack.service;
+
+import com.codetrack.IntegrationTest;
+import com.codetrack.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProblemAggregateBackfillTest extends IntegrationTest {
+    
+    @Autowired
+    private ProblemAggregateBackfill problemAggregateBackfill;
+    
+    @Autowired
+    private ProblemImportService problemImportService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void fillsTheDerivedColumnsOfOldRows() throws IOException {
+        User user = createUser();
+        String body = "{\"title\": \"Old\", \"pattern\": \"Graphs\", \"difficulty\": \"Hard\", \"priority\": \"High\", "
+                + "\"createdAt\": \"2024-01-01T09:00:00\", \"lastRevised\": \"2024-01-05T09:00:00\", \"revisionInterval\": 3, "
+                + "\"solvedDates\": ["
+                + "{\"date\": \"2024-01-01T09:00:00\", \"timeSpent\": 30, \"rating\": 2}, "
+                + "{\"date\": \"2024-01-03T09:00:00\", \"timeSpent\": 20, \"rating\": 5}, "
+                + "{\"date\": \"2024-01-05T09:00:00\", \"timeSpent\": 10, \"rating\": 4}]}\n"
+                + "{\"title\": \"Never revised\", \"pattern\": \"Graphs\", \"difficulty\": \"Easy\", "
+                + "\"createdAt\": \"2024-02-01T09:00:00\", \"solvedDates\": []}";
+        problemImportService.importProblems(user.getId(),
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), true, true);
+        // what rows written before the derived columns existed look like
+        jdbcTemplate.update("UPDATE problems SET rating_sum = NULL, rating_count = NULL, min_rating = NULL, "
+                + "max_rating = NULL, last_rating = NULL, average_rating = NULL, next_revision_due = NULL, "
+                + "last_activity_at = NULL, priority_rank = NULL WHERE owner_id = ?", user.getId());
+        
+        problemAggregateBackfill.backfill();
+        
+        Map<String, Object> old = row(user, "Old");
+        assertThat(old.get("rating_sum")).isEqualTo(11);
+        assertThat(old.get("rating_count")).isEqualTo(3);
+        assertThat(old.get("min_rating")).isEqualTo(2);
+        assertThat(old.get("max_rating")).isEqualTo(5);
+        assertThat(old.get("last_rating")).isEqualTo(4);
+        assertThat(((Number) old.get("average_rating")).doubleValue()).isEqualTo(3.7);
+        assertThat(old.get("next_revision_due")).isEqualTo(Timestamp.valueOf(LocalDateTime.of(2024, 1, 8, 9, 0)));
+        assertThat(old.get("last_activity_at")).isEqualTo(Timestamp.valueOf(LocalDateTime.of(2024, 1, 5, 9, 0)));
+        assertThat(old.get("priority_rank")).isEqualTo(3);
+        
+        Map<String, Object> neverRevised = row(user, "Never revised");
+        assertThat(neverRevised.get("rating_count")).isEqualTo(0);
+        assertThat(neverRevised.get("min_rating")).isNull();
+        assertThat(((Number) neverRevised.get("average_rating")).doubleValue()).isZero();
+        assertThat(neverRevised.get("last_activity_at")).isEqualTo(Timestamp.valueOf(LocalDateTime.of(2024, 2, 1, 9, 0)));
+        assertThat(neverRevised.get("priority_rank")).isEqualTo(0);
+    }
+    
+    private Map<String, Object> row(User user, String title) {
+        return jdbcTemplate.queryForMap("SELECT * FROM problems WHERE owner_id = ? AND title = ?", user.getId(), title);
+    }
+}
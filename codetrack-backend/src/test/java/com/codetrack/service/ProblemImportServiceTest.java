@@ -0,0 +1,125 @@
+package com.codetrack.service;
+
+import com.codetrack.IntegrationTest;
+import com.codetrack.dto.ImportResultDTO;
+import com.codetrack.entity.User;
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProblemImportServiceTest extends IntegrationTest {
+    
+    @Autowired
+    private ProblemImportService problemImportService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void replaceRemovesProblemsMissingFromTheImport() throws IOException {
+        User user = createUser();
+        importNdjson(user, true, problem("Old", "2024-01-01T10:00:00", 3));
+        
+        ImportResultDTO result = importNdjson(user, false,
+                problem("New A", "2024-02-01T10:00:00", 4),
+                problem("New B", "2024-02-02T10:00:00", 0)); // 0 is "no rating"
+        
+        assertThat(result.getFailed()).isZero();
+        assertThat(result.getRemoved()).isEqualTo(1);
+        assertThat(titles(user)).containsExactlyInAnyOrder("New A", "New B");
+    }
+    
+    @Test
+    void replaceKeepsExistingProblemsWhenAnyProblemFails() throws IOException {
+        User user = createUser();
+        importNdjson(user, true, problem("Old", "2024-01-01T10:00:00", 3));
+        
+        ImportResultDTO result = importNdjson(user, false,
+                problem("New", "2024-02-01T10:00:00", 4),
+                problem("Bad rating", "2024-02-01T10:00:00", 9),
+                problem("Bad date", "3000-01-01T10:00:00", 4));
+        
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getRemoved()).isZero();
+        assertThat(result.getChunks().get(0).getErrors())
+                .containsExactly("#1: Rating must be between 1 and 5", "#2: Date must not be in the future");
+        assertThat(titles(user)).containsExactlyInAnyOrder("Old", "New");
+    }
+    
+    @Test
+    void replaceKeepsExistingProblemsWhenThePayloadIsMalformed() throws IOException {
+        User user = createUser();
+        importNdjson(user, true, problem("Old", "2024-01-01T10:00:00", 3));
+        
+        String body = problem("New", "2024-02-01T10:00:00", 4) + "\n{\"title\": ";
+        ImportResultDTO result = problemImportService.importProblems(user.getId(),
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), true, false);
+        
+        assertThat(result.getRemoved()).isZero();
+        assertThat(titles(user)).containsExactlyInAnyOrder("Old", "New");
+    }
+    
+    @Test
+    void errorsAreCappedWithACountOfTheRest() throws IOException {
+        User user = createUser();
+        int bad = ProblemImportService.MAX_REPORTED_ERRORS + 650; // spans two chunks
+        String[] problems = new String[bad + 1];
+        for (int i = 0; i < bad; i++) {
+            problems[i] = problem("Bad " + i, "2024-02-01T10:00:00", 9);
+        }
+        problems[bad] = problem("Good", "2024-02-01T10:00:00", 4);
+        
+        ImportResultDTO result = importNdjson(user, true, problems);
+        
+        assertThat(result.getFailed()).isEqualTo(bad);
+        assertThat(result.getImported()).isEqualTo(1);
+        List<String> errors = result.getChunks().stream().flatMap(chunk -> chunk.getErrors().stream()).toList();
+        assertThat(errors).hasSize(ProblemImportService.MAX_REPORTED_ERRORS + 1)
+                .startsWith("#0: Rating must be between 1 and 5")
+                .endsWith("… 650 more");
+    }
+    
+    @Test
+    void readFailureWithoutALocationIsReported() throws IOException {
+        User user = createUser();
+        InputStream body = new SequenceInputStream(
+                new ByteArrayInputStream((problem("Read", "2024-02-01T10:00:00", 4) + "\n").getBytes(StandardCharsets.UTF_8)),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new JsonParseException(null, "connection reset");
+                    }
+                });
+        
+        ImportResultDTO result = problemImportService.importProblems(user.getId(), body, true, true);
+        
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getChunks()).singleElement()
+                .satisfies(chunk -> assertThat(chunk.getErrors()).containsExactly("Malformed payload: connection reset"));
+    }
+    
+    private ImportResultDTO importNdjson(User user, boolean merge, String... problems) throws IOException {
+        byte[] body = String.join("\n", problems).getBytes(StandardCharsets.UTF_8);
+        return problemImportService.importProblems(user.getId(), new ByteArrayInputStream(body), true, merge);
+    }
+    
+    private List<String> titles(User user) {
+        return jdbcTemplate.queryForList("SELECT title FROM problems WHERE owner_id = ?", String.class, user.getId());
+    }
+    
+    private static String problem(String title, String solvedAt, int rating) {
+        return "{\"title\": \"" + title + "\", \"pattern\": \"Arrays\", \"difficulty\": \"Easy\", "
+                + "\"solvedDates\": [{\"date\": \"" + solvedAt + "\", \"timeSpent\": 20, \"rating\": " + rating + "}]}";
+    }
+}
@@ -0,0 +1,69 @@
+package com.codetrack.service;
+
+import com.codetrack.entity.Problem;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProblemServiceTest {
+    
+    private final ProblemService problemService = new ProblemService();
+    
+    @Test
+    void revisionAggregatesTrackEveryRating() {
+        Problem problem = new Problem();
+        
+        problemService.applyRevisionAggregates(problem, 30, 4);
+        problemService.applyRevisionAggregates(problem, 10, 2);
+        problemService.applyRevisionAggregates(problem, 15, 5);
+        problemService.applyRevisionAggregates(problem, 5, 3);
+        
+        assertThat(problem.getTotalTimeSpent()).isEqualTo(60);
+        assertThat(problem.getRatingSum()).isEqualTo(14);
+        assertThat(problem.getRatingCount()).isEqualTo(4);
+        assertThat(problem.getMinRating()).isEqualTo(2);
+        assertThat(problem.getMaxRating()).isEqualTo(5);
+        assertThat(problem.getLastRating()).isEqualTo(3);
+        assertThat(problem.getAverageRating()).isEqualTo(3.5);
+    }
+    
+    @Test
+    void revisionsWithoutRatingOnlyAddTime() {
+        Problem problem = new Problem();
+        problemService.applyRevisionAggregates(problem, 20, 3);
+        
+        problemService.applyRevisionAggregates(problem, 25, null);
+        problemService.applyRevisionAggregates(problem, null, null);
+        
+        assertThat(problem.getTotalTimeSpent()).isEqualTo(45);
+        assertThat(problem.getRatingCount()).isEqualTo(1);
+        assertThat(problem.getLastRating()).isEqualTo(3);
+        assertThat(problem.getAverageRating()).isEqualTo(3.0);
+    }
+    
+    @Test
+    void aggregatesStartFromRowsWrittenBeforeTheColumnsExisted() {
+        Problem problem = new Problem();
+        problem.setTotalTimeSpent(null);
+        problem.setRatingSum(null);
+        problem.setRatingCount(null);
+        
+        problemService.applyRevisionAggregates(problem, 10, 1);
+        problemService.applyRevisionAggregates(problem, 10, 2);
+        
+        assertThat(problem.getTotalTimeSpent()).isEqualTo(20);
+        assertThat(problem.getRatingSum()).isEqualTo(3);
+        assertThat(problem.getRatingCount()).isEqualTo(2);
+        assertThat(problem.getAverageRating()).isEqualTo(1.5);
+    }
+    
+    @Test
+    void priorityRankOrdersCriticalFirst() {
+        assertThat(ProblemService.priorityRank("Critical")).isEqualTo(4);
+        assertThat(ProblemService.priorityRank("High")).isEqualTo(3);
+        assertThat(ProblemService.priorityRank("Medium")).isEqualTo(2);
+        assertThat(ProblemService.priorityRank("Low")).isEqualTo(1);
+        assertThat(ProblemService.priorityRank("Someday")).isZero();
+        assertThat(ProblemService.priorityRank(null)).isZero();
+    }
+}
@@ -0,0 +1,82 @@
+package com.codetrack.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompressedTextTest {
+    
+    private final CompressedTextConverter converter = new CompressedTextConverter();
+    
+    @Test
+    void shortTextIsStoredUnchanged() {
+        String text = "a".repeat(CompressedText.THRESHOLD - 1);
+        
+        assertThat(CompressedText.encode(text)).isSameAs(text);
+        assertThat(roundTrip(text)).isEqualTo(text);
+        assertThat(roundTrip("")).isEmpty();
+    }
+    
+    @Test
+    void longTextIsDeflatedAndReadBackIntact() {
+        String text = "Use a monotonic deque: pop smaller values from the back. Größe ≤ k, 单调队列.\n"
+                .repeat(20);
+        assertThat(text.length()).isGreaterThanOrEqualTo(CompressedText.THRESHOLD);
+        
+        String stored = converter.convertToDatabaseColumn(text);
+        
+        assertThat(stored).startsWith(CompressedText.PREFIX).hasSizeLessThan(text.length() / 4);
+        assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(text);
+    }
+    
+    @Test
+    void incompressibleTextIsStoredUnchanged() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 2 * CompressedText.THRESHOLD) {
+            text.append((char) ('!' + random.nextInt(94)));
+        }
+        
+        assertThat(CompressedText.encode(text.toString())).isEqualTo(text.toString());
+        assertThat(roundTrip(text.toString())).isEqualTo(text.toString());
+    }
+    
+    @Test
+    void textThatLooksEncodedIsAlwaysEncoded() {
+        String shortText = CompressedText.PREFIX + "not base64!";
+        String longText = CompressedText.PREFIX + "x".repeat(CompressedText.THRESHOLD);
+        
+        assertThat(CompressedText.encode(shortText)).startsWith(CompressedText.PREFIX).isNotEqualTo(shortText);
+        assertThat(roundTrip(shortText)).isEqualTo(shortText);
+        assertThat(roundTrip(longText)).isEqualTo(longText);
+        assertThat(roundTrip(CompressedText.PREFIX)).isEqualTo(CompressedText.PREFIX);
+    }
+    
+    @Test
+    void nullStaysNull() {
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+    
+    @Test
+    void rowsWrittenBeforeTheEncodingReadBackAsTheyAre() {
+        String legacy = "plain notes ".repeat(100);
+        
+        assertThat(converter.convertToEntityAttribute(legacy)).isSameAs(legacy);
+    }
+    
+    @Test
+    void truncatedValueIsReportedAsCorrupt() {
+        String stored = CompressedText.encode("abc".repeat(CompressedText.THRESHOLD));
+        String truncated = stored.substring(0, stored.length() - 8);
+        
+        assertThatThrownBy(() -> CompressedText.decode(truncated)).isInstanceOf(IllegalStateException.class);
+    }
+    
+    private String roundTrip(String text) {
+        return converter.convertToEntityAttribute(converter.convertToDatabaseColumn(text));
+    }
+}
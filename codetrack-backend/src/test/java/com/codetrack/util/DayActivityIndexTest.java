@@ -0,0 +1,49 @@
+package com.codetrack.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DayActivityIndexTest {
+    
+    @Test
+    void tracksStreaksAcrossDays() {
+        DayActivityIndex index = new DayActivityIndex();
+        LocalDate today = LocalDate.of(2025, 3, 10);
+        index.add(today.minusDays(2), 1, 30, 4, 1);
+        index.add(today.minusDays(1), 2, 10, 0, 0);
+        index.add(today, 1, 0, 0, 0);
+        index.add(today.minusDays(10), 1, 0, 0, 0);
+        
+        assertThat(index.currentStreak(today)).isEqualTo(3);
+        assertThat(index.longestStreak()).isEqualTo(3);
+        assertThat(index.activeDays()).isEqualTo(4);
+    }
+    
+    @Test
+    void ignoresDaysOutsideTheSupportedRange() {
+        DayActivityIndex index = new DayActivityIndex();
+        index.add(LocalDate.of(2025, 3, 10), 1, 0, 0, 0);
+        
+        assertThat(index.add(LocalDate.of(99999, 1, 1), 1, 0, 0, 0)).isFalse();
+        assertThat(index.add(LocalDate.MAX, 1, 0, 0, 0)).isFalse();
+        assertThat(index.add(LocalDate.of(1969, 12, 31), 1, 0, 0, 0)).isFalse();
+        assertThat(index.activeDays()).isEqualTo(1);
+        assertThat(index.range(LocalDate.of(1900, 1, 1), LocalDate.of(2199, 12, 31))).hasSize(1);
+    }
+    
+    @Test
+    void validatorRejectsDatesTheIndexCannotHold() {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 23, 0);
+        
+        assertThat(RevisionValidator.checkDate(now.plusHours(20), now)).isNull(); // client a time zone ahead
+        assertThat(RevisionValidator.checkDate(now.plusDays(3), now)).isNotNull();
+        assertThat(RevisionValidator.checkDate(LocalDateTime.of(1969, 12, 31, 0, 0), now)).isNotNull();
+        assertThat(RevisionValidator.checkDate(null, now)).isNull();
+        assertThat(RevisionValidator.checkRating(0)).isNotNull();
+        assertThat(RevisionValidator.checkRating(5)).isNull();
+    }
+}
@@ -0,0 +1,102 @@
+package com.codetrack.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+    
+    @Test
+    void tokenizesOnNonAlphanumericsAndLowercases() {
+        assertThat(InvertedIndex.tokenize("Two-Sum (II): BFS+DFS, O(n log n)"))
+                .containsExactly("two", "sum", "ii", "bfs", "dfs", "o", "n", "log", "n");
+        assertThat(InvertedIndex.tokenize("Größe 最短路径")).containsExactly("größe", "最短路径");
+        assertThat(InvertedIndex.tokenize("ok " + "x".repeat(41))).containsExactly("ok");
+        assertThat(InvertedIndex.tokenize(null)).isEmpty();
+        assertThat(InvertedIndex.tokenize(" -- ")).isEmpty();
+    }
+    
+    @Test
+    void partialTermsMatchThroughTrigrams() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, fields("Dijkstra shortest path"));
+        index.put(2, fields("Binary search"));
+        
+        assertThat(ids(index.search("dijk"))).containsExactly(1L);
+        assertThat(ids(index.search("ortes"))).containsExactly(1L);
+        assertThat(ids(index.search("di"))).isEmpty(); // too short for trigrams, and no exact token
+        assertThat(ids(index.search("dijx"))).isEmpty();
+    }
+    
+    @Test
+    void exactMatchesOutrankPartialOnes() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, fields("heapify"));
+        index.put(2, fields("heap"));
+        
+        assertThat(ids(index.search("heap"))).containsExactly(2L, 1L);
+    }
+    
+    @Test
+    void everyTermMustMatch() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, fields("graph bfs"));
+        index.put(2, fields("graph dfs"));
+        index.put(3, fields("tree dfs"));
+        
+        assertThat(ids(index.search("graph dfs"))).containsExactly(2L);
+        assertThat(ids(index.search("dfs"))).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(ids(index.search("graph missing"))).isEmpty();
+        assertThat(ids(index.search("  "))).isEmpty();
+    }
+    
+    @Test
+    void ranksByWeightedTermFrequencyThenRarity() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, List.of(new InvertedIndex.Field("stack", 1f)));
+        index.put(2, List.of(new InvertedIndex.Field("stack", 5f)));
+        index.put(3, List.of(new InvertedIndex.Field("stack stack", 1f)));
+        index.put(4, List.of(new InvertedIndex.Field("stack", 1f), new InvertedIndex.Field("monotonic", 1f)));
+        
+        // same term frequency: ties break on the higher id
+        assertThat(ids(index.search("stack"))).containsExactly(2L, 3L, 4L, 1L);
+        // in document 4 both terms occur once, but only one document has "monotonic"
+        float common = index.search("stack").get(2).getScore();
+        float rare = index.search("monotonic").get(0).getScore();
+        assertThat(rare).isGreaterThan(common);
+        assertThat(index.search("monotonic stack")).singleElement()
+                .satisfies(hit -> assertThat(hit.getScore()).isEqualTo(rare + common));
+    }
+    
+    @Test
+    void putReplacesAndRemoveForgetsADocument() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, fields("sliding window"));
+        index.put(2, fields("window functions"));
+        
+        index.put(1, fields("two pointers"));
+        assertThat(ids(index.search("sliding"))).isEmpty();
+        assertThat(ids(index.search("slid"))).isEmpty(); // its trigrams went with it
+        assertThat(ids(index.search("pointers"))).containsExactly(1L);
+        assertThat(ids(index.search("window"))).containsExactly(2L);
+        
+        index.remove(2);
+        index.remove(42);
+        assertThat(ids(index.search("window"))).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+        
+        index.clear();
+        assertThat(index.size()).isZero();
+        assertThat(ids(index.search("pointers"))).isEmpty();
+    }
+    
+    private static List<InvertedIndex.Field> fields(String text) {
+        return List.of(new InvertedIndex.Field(text, 1f));
+    }
+    
+    private static List<Long> ids(List<InvertedIndex.Hit> hits) {
+        return hits.stream().map(InvertedIndex.Hit::getId).toList();
+    }
+}
@@ -0,0 +1,123 @@
+package com.codetrack.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+    
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    
+    @Test
+    void allowsTheBurstThenRejects() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, 1, 100);
+        
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("user:1", 0)).isZero();
+        }
+        assertThat(limiter.tryAcquire("user:1", 0)).isPositive();
+        assertThat(limiter.getAllowed()).isEqualTo(3);
+        assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+    
+    @Test
+    void refillsOneTokenPerInterval() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 2, 100); // a token every 500ms
+        limiter.tryAcquire("user:1", 0);
+        limiter.tryAcquire("user:1", 0);
+        
+        assertThat(limiter.tryAcquire("user:1", SECOND / 4)).isPositive();
+        assertThat(limiter.tryAcquire("user:1", SECOND / 2)).isZero();
+        assertThat(limiter.tryAcquire("user:1", SECOND / 2)).isPositive();
+    }
+    
+    @Test
+    void neverHoldsMoreThanTheBurst() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1, 100);
+        limiter.tryAcquire("user:1", 0);
+        
+        long later = 60 * SECOND; // idle long enough to have refilled many times over
+        assertThat(limiter.tryAcquire("user:1", later)).isZero();
+        assertThat(limiter.tryAcquire("user:1", later)).isZero();
+        assertThat(limiter.tryAcquire("user:1", later)).isPositive();
+    }
+    
+    @Test
+    void waitIsTheTimeUntilTheNextToken() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 0.2, 100); // a token every 5s
+        limiter.tryAcquire("ip:10.0.0.1", 0);
+        
+        assertThat(limiter.tryAcquire("ip:10.0.0.1", 0)).isEqualTo(5 * SECOND);
+        assertThat(limiter.tryAcquire("ip:10.0.0.1", 2 * SECOND)).isEqualTo(3 * SECOND);
+        assertThat(limiter.tryAcquire("ip:10.0.0.1", 5 * SECOND)).isZero();
+    }
+    
+    @Test
+    void keysHaveSeparateBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 100);
+        
+        assertThat(limiter.tryAcquire("user:1", 0)).isZero();
+        assertThat(limiter.tryAcquire("user:1", 0)).isPositive();
+        assertThat(limiter.tryAcquire("user:2", 0)).isZero();
+    }
+    
+    @Test
+    void evictsFullBucketsFirstAndKeepsDrainedOnes() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1, 10);
+        limiter.tryAcquire("busy", 0);
+        limiter.tryAcquire("busy", 0); // empty until 1s, full at 2s
+        for (int i = 1; i <= 9; i++) {
+            limiter.tryAcquire("idle" + i, 0); // full again at 1s
+        }
+        assertThat(limiter.size()).isEqualTo(10);
+        
+        limiter.tryAcquire("new", SECOND + SECOND / 2);
+        
+        assertThat(limiter.size()).isEqualTo(2);
+        assertThat(limiter.getEvictions()).isEqualTo(9);
+        // "busy" kept its state: one token refilled since, not a fresh burst of two
+        assertThat(limiter.tryAcquire("busy", SECOND + SECOND / 2)).isZero();
+        assertThat(limiter.tryAcquire("busy", SECOND + SECOND / 2)).isPositive();
+    }
+    
+    @Test
+    void staysBoundedWhenNoBucketIsFull() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 0.001, 10);
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("ip:" + i, 0);
+            assertThat(limiter.size()).isLessThanOrEqualTo(10);
+        }
+        assertThat(limiter.getEvictions()).isPositive();
+    }
+    
+    @Test
+    void concurrentCallersShareTheBurstExactly() throws InterruptedException {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1000, 0.001, 100);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.tryAcquire("user:1", 0) == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        
+        assertThat(allowed.get()).isEqualTo(1000);
+        assertThat(limiter.getRejected()).isEqualTo(7000);
+    }
+}
@@ -0,0 +1,128 @@
+package com.codetrack.benchmark;
+
+import com.codetrack.entity.Approach;
+import com.codetrack.entity.Problem;
+import com.codetrack.entity.SolvedDate;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Realistic problems for the benchmarks: a handful of tags, two approaches with code (every
+ * third problem has a third, longer write-up), and a configurable revision history. Values vary
+ * with the id (deterministically) so lists do not compress unrealistically well.
+ */
+public final class Fixtures {
+    
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 9, 30);
+    
+    private static final String[] PATTERNS = {"Hashing", "Two Pointers", "Sliding Window", "Graphs", "Dynamic Programming", "Trees"};
+    private static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+    private static final String[] PRIORITIES = {"Low", "Medium", "High", "Critical"};
+    private static final String[] TAGS = {"array", "hash-table", "blind-75", "string", "bfs", "dfs", "heap", "neetcode-150"};
+    
+    private static final String CODE = String.join("\n",
+            "public int[] twoSum(int[] nums, int target) {",
+            "    Map<Integer, Integer> seen = new HashMap<>();",
+            "    for (int i = 0; i < nums.length; i++) {",
+            "        Integer j = seen.get(target - nums[i]);",
+            "        if (j != null) return new int[] {j, i};",
+            "        seen.put(nums[i], i);",
+            "    }",
+            "    return new int[0];",
+            "}");
+    
+    // A longer write-up of the kind users paste in for harder problems
+    private static final String LONG_CODE = String.join("\n",
+            "public int[] dijkstra(List<List<int[]>> graph, int source) {",
+            "    int n = graph.size();",
+            "    int[] dist = new int[n];",
+            "    Arrays.fill(dist, Integer.MAX_VALUE);",
+            "    dist[source] = 0;",
+            "    PriorityQueue<int[]> queue = new PriorityQueue<>(Comparator.comparingInt(e -> e[1]));",
+            "    queue.add(new int[] {source, 0});",
+            "    while (!queue.isEmpty()) {",
+            "        int[] current = queue.poll();",
+            "        int node = current[0];",
+            "        if (current[1] > dist[node]) {",
+            "            continue; // stale entry, a shorter path was already settled",
+            "        }",
+            "        for (int[] edge : graph.get(node)) {",
+            "            int next = edge[0];",
+            "            int candidate = dist[node] + edge[1];",
+            "            if (candidate < dist[next]) {",
+            "                dist[next] = candidate;",
+            "                queue.add(new int[] {next, candidate});",
+            "            }",
+            "        }",
+            "    }",
+            "    return dist;",
+            "}",
+            "",
+            "// Complexity: O((V + E) log V) time, O(V + E) space.",
+            "// Edge cases: unreachable nodes keep Integer.MAX_VALUE; negative weights are not supported,",
+            "// use Bellman-Ford instead. Lazy deletion (skipping stale queue entries) avoids a decrease-key.",
+            "// Variants seen in interviews: network delay time, cheapest flights within k stops (needs the",
+            "// stop count in the state), path with maximum probability (max-heap on products).");
+    
+    private Fixtures() {
+    }
+    
+    public static Problem problem(long id, int revisions) {
+        int n = (int) id;
+        LocalDateTime createdAt = BASE.plusHours(id * 7).plusMinutes(id * 13 % 60);
+        Problem problem = new Problem();
+        problem.setId(id);
+        problem.setTitle("Two Sum " + id);
+        problem.setPattern(PATTERNS[n % PATTERNS.length]);
+        problem.setDifficulty(DIFFICULTIES[n % DIFFICULTIES.length]);
+        problem.setPlatform("LeetCode");
+        problem.setLink("https://leetcode.com/problems/two-sum-" + id + "/");
+        problem.setNotes("Store complements in a map; one pass is enough. Watch out for case " + id * 31 + ".");
+        problem.setTags(new ArrayList<>(List.of(TAGS[n % TAGS.length], TAGS[(n / 2 + 3) % TAGS.length], "blind-75")));
+        problem.setPriority(PRIORITIES[n % PRIORITIES.length]);
+        problem.setRevisionInterval(7);
+        problem.setCreatedAt(createdAt);
+        
+        List<Approach> approaches = new ArrayList<>();
+        approaches.add(new Approach("Brute force: check every pair, O(n^2)", "for (int i...) for (int j...)"));
+        approaches.add(new Approach("One-pass hash map, O(n)", CODE.replace("twoSum", "twoSum" + id).replace("seen", "seen" + id % 97)));
+        if (id % 3 == 0) {
+            approaches.add(new Approach("Generalisation: shortest paths with Dijkstra. " + "Walk through the invariant before coding. ".repeat(6) + id,
+                    LONG_CODE.replace("dijkstra", "dijkstra" + id)));
+        }
+        problem.setApproaches(approaches);
+        
+        List<SolvedDate> solvedDates = new ArrayList<>(revisions);
+        int totalTime = 0;
+        for (int i = 0; i < revisions; i++) {
+            LocalDateTime date = createdAt.plusDays(i * 3L).plusMinutes((id * 17 + i * 41) % 600).plusSeconds(i * 7 % 60);
+            SolvedDate solvedDate = new SolvedDate(id * 1000 + i, date, 10 + (n + i) % 30, 1 + (n + i) % 5, problem);
+            solvedDates.add(solvedDate);
+            totalTime += solvedDate.getTimeSpent();
+        }
+        problem.setSolvedDates(solvedDates);
+        problem.setRevisionCount(revisions);
+        problem.setTotalTimeSpent(totalTime);
+        if (revisions > 0) {
+            problem.setLastRevised(solvedDates.get(revisions - 1).getDate());
+        }
+        problem.setNextRevisionDue((revisions > 0 ? problem.getLastRevised() : createdAt).plusDays(7));
+        return problem;
+    }
+    
+    /**
+     * Sets a private (normally {@code @Value}- or {@code @Autowired}-injected) field.
+     */
+    public static void inject(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
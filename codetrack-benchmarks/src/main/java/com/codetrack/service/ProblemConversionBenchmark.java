@@ -0,0 +1,55 @@
+package com.codetrack.service;
+
+import com.codetrack.benchmark.Fixtures;
+import com.codetrack.dto.ProblemDTO;
+import com.codetrack.entity.Problem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProblemService entity/DTO mapping, which runs once per problem on every read and write.
+ * Lives in the service package to reach the package-private converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProblemConversionBenchmark {
+    
+    @Param({"0", "10", "100"})
+    private int revisions;
+    
+    private ProblemService problemService;
+    private Problem problem;
+    private ProblemDTO dto;
+    
+    @Setup
+    public void setUp() {
+        problemService = new ProblemService(); // the converters use no collaborators
+        problem = Fixtures.problem(1L, revisions);
+        dto = problemService.convertToDTO(problem);
+    }
+    
+    @Benchmark
+    public ProblemDTO convertToDTO() {
+        return problemService.convertToDTO(problem);
+    }
+    
+    @Benchmark
+    public Problem convertToEntity() {
+        return problemService.convertToEntity(dto);
+    }
+}
@@ -0,0 +1,113 @@
+package com.codetrack.service;
+
+import com.codetrack.benchmark.Fixtures;
+import com.codetrack.dto.ProblemDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cost of each negotiable response format for a problem list: encoding alone, encoding plus
+ * gzip (what Tomcat does above server.compression.min-response-size), and decoding. The mappers
+ * are configured like the converters in BinaryFormatsConfig. Payload sizes, raw and gzipped,
+ * are printed once per trial since JMH only reports time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProblemFormatBenchmark {
+    
+    @Param({"json", "cbor", "smile"})
+    private String format;
+    
+    @Param({"200"})
+    private int problems;
+    
+    @Param({"10"})
+    private int revisions;
+    
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<ProblemDTO> dtos;
+    private byte[] encoded;
+    
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS) // as spring.jackson defaults
+                .factory(factory(format))
+                .build();
+        JavaType listType = mapper.getTypeFactory().constructCollectionType(List.class, ProblemDTO.class);
+        writer = mapper.writerFor(listType);
+        reader = mapper.readerFor(listType);
+        
+        ProblemService problemService = new ProblemService();
+        dtos = new ArrayList<>(problems);
+        for (int i = 0; i < problems; i++) {
+            dtos.add(problemService.convertToDTO(Fixtures.problem(i + 1, revisions)));
+        }
+        encoded = writer.writeValueAsBytes(dtos);
+        System.out.printf("%n%s, %d problems: %d bytes, %d bytes gzipped%n",
+                format, problems, encoded.length, serializeGzip().length);
+    }
+    
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "json":
+                return new JsonFactory();
+            case "cbor":
+                return new CBORFactory();
+            case "smile":
+                return SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build();
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(dtos);
+    }
+    
+    @Benchmark
+    public byte[] serializeGzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(encoded != null ? encoded.length / 4 : 8192);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            writer.writeValue(gzip, dtos);
+        }
+        return out.toByteArray();
+    }
+    
+    @Benchmark
+    public List<ProblemDTO> deserialize() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
@@ -0,0 +1,65 @@
+package com.codetrack.service;
+
+import com.codetrack.benchmark.Fixtures;
+import com.codetrack.dto.ProblemDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of problem lists as the controllers return them, with an ObjectMapper
+ * configured the way Spring Boot configures the one used for responses. The DTOs come from
+ * the real ProblemService converter, hence the package.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProblemJsonBenchmark {
+    
+    @Param({"1", "50", "200"})
+    private int problems;
+    
+    @Param({"10"})
+    private int revisions;
+    
+    private ObjectWriter writer;
+    private List<ProblemDTO> dtos;
+    
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS) // as spring.jackson defaults
+                .build();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, ProblemDTO.class));
+        
+        ProblemService problemService = new ProblemService();
+        dtos = new ArrayList<>(problems);
+        for (int i = 0; i < problems; i++) {
+            dtos.add(problemService.convertToDTO(Fixtures.problem(i + 1, revisions)));
+        }
+    }
+    
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return writer.writeValueAsBytes(dtos);
+    }
+}
@@ -0,0 +1,144 @@
+package com.codetrack.service;
+
+import com.codetrack.benchmark.Fixtures;
+import com.codetrack.dto.ProblemDTO;
+import com.codetrack.dto.ProblemSummaryDTO;
+import com.codetrack.entity.Approach;
+import com.codetrack.entity.Problem;
+import com.codetrack.util.CompressedText;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * What the list projection and the at-rest compression buy: serializing a page of full DTOs
+ * against summaries, and the CPU cost of CompressedText on every stored notes/code value. Sizes
+ * (list payload raw and gzipped, stored text raw and encoded) are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProblemSummaryBenchmark {
+    
+    @Param({"200"})
+    private int problems;
+    
+    @Param({"10"})
+    private int revisions;
+    
+    private ObjectWriter writer;
+    private List<ProblemDTO> fullDtos;
+    private List<ProblemSummaryDTO> summaries;
+    private List<String> texts;
+    private List<String> stored;
+    
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS) // as spring.jackson defaults
+                .build();
+        writer = mapper.writer();
+        
+        ProblemService problemService = new ProblemService();
+        fullDtos = new ArrayList<>(problems);
+        summaries = new ArrayList<>(problems);
+        texts = new ArrayList<>();
+        for (int i = 0; i < problems; i++) {
+            Problem problem = Fixtures.problem(i + 1, revisions);
+            fullDtos.add(problemService.convertToDTO(problem));
+            summaries.add(summary(problem));
+            texts.add(problem.getNotes());
+            for (Approach approach : problem.getApproaches()) {
+                texts.add(approach.getNotes());
+                texts.add(approach.getCode());
+            }
+        }
+        stored = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            stored.add(CompressedText.encode(text));
+        }
+        
+        byte[] full = writer.writeValueAsBytes(fullDtos);
+        byte[] summary = writer.writeValueAsBytes(summaries);
+        System.out.printf("%n%d problems, list JSON: full %d bytes (%d gzipped), summary %d bytes (%d gzipped)%n",
+                problems, full.length, gzip(full).length, summary.length, gzip(summary).length);
+        long rawBytes = 0;
+        long storedBytes = 0;
+        int compressed = 0;
+        for (int i = 0; i < texts.size(); i++) {
+            rawBytes += texts.get(i).getBytes(StandardCharsets.UTF_8).length;
+            storedBytes += stored.get(i).getBytes(StandardCharsets.UTF_8).length;
+            if (stored.get(i).startsWith(CompressedText.PREFIX)) {
+                compressed++;
+            }
+        }
+        System.out.printf("stored notes/code: %d values, %d compressed, %d bytes raw, %d bytes stored%n",
+                texts.size(), compressed, rawBytes, storedBytes);
+    }
+    
+    private static ProblemSummaryDTO summary(Problem problem) {
+        ProblemSummaryDTO dto = new ProblemSummaryDTO(problem.getId(), problem.getTitle(), problem.getPattern(),
+                problem.getDifficulty(), problem.getPlatform(), problem.getLink(), problem.getPriority(),
+                problem.getRevisionInterval(), problem.getRevisionCount(), problem.getLastRevised(),
+                problem.getNextRevisionDue(), problem.getCreatedAt(), problem.getTotalTimeSpent(),
+                problem.getAverageRating());
+        dto.setTags(new ArrayList<>(problem.getTags()));
+        return dto;
+    }
+    
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+    
+    @Benchmark
+    public byte[] serializeFull() throws IOException {
+        return writer.writeValueAsBytes(fullDtos);
+    }
+    
+    @Benchmark
+    public byte[] serializeSummary() throws IOException {
+        return writer.writeValueAsBytes(summaries);
+    }
+    
+    @Benchmark
+    public void encodeText(Blackhole blackhole) {
+        for (String text : texts) {
+            blackhole.consume(CompressedText.encode(text));
+        }
+    }
+    
+    @Benchmark
+    public void decodeText(Blackhole blackhole) {
+        for (String value : stored) {
+            blackhole.consume(CompressedText.decode(value));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.codetrack.service;
+
+import com.codetrack.benchmark.Fixtures;
+import com.codetrack.entity.Problem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory part of markRevision: running time/rating aggregates and the next due date.
+ * Should stay flat no matter how long the revision history is.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RevisionAggregateBenchmark {
+    
+    private ProblemService problemService;
+    private Problem problem;
+    private int rating;
+    
+    @Setup
+    public void setUp() {
+        problemService = new ProblemService();
+        problem = Fixtures.problem(1L, 100);
+    }
+    
+    @Benchmark
+    public Problem markRevisionAggregates() {
+        rating = rating % 5 + 1;
+        LocalDateTime now = LocalDateTime.now();
+        problem.setRevisionCount(problem.getRevisionCount() + 1);
+        problem.setLastRevised(now);
+        problem.setNextRevisionDue(ProblemService.nextRevisionDue(now, problem.getCreatedAt(), problem.getRevisionInterval()));
+        problemService.applyRevisionAggregates(problem, 25, rating);
+        return problem;
+    }
+}
@@ -0,0 +1,65 @@
+package com.codetrack.util;
+
+import com.codetrack.benchmark.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification. {@code validateToken} is the per-request path and is normally
+ * answered from the verified-token cache; {@code validateTokenUncached} shows the cost of a
+ * first sighting (one parse plus HMAC check).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hmac-sha-512-signing-0123456789";
+    
+    private JwtUtil jwtUtil;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        Fixtures.inject(jwtUtil, "secret", SECRET);
+        Fixtures.inject(jwtUtil, "expiration", 86_400_000L);
+        Fixtures.inject(jwtUtil, "cacheMaxEntries", 10_000);
+        jwtUtil.init();
+        token = jwtUtil.generateToken("benchmark_user", 42L);
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("benchmark_user", 42L);
+    }
+    
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+    
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, "benchmark_user");
+    }
+    
+    @Benchmark
+    public Boolean validateTokenUncached() {
+        jwtUtil.getCache().clear();
+        return jwtUtil.validateToken(token, "benchmark_user");
+    }
+}
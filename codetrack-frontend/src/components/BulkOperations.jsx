@@ -1,6 +1,6 @@
 import { useState } from 'react'
 import { Trash2, RotateCcw, Tag, CheckSquare, Square } from 'lucide-react'
-import { deleteProblem, markRevision } from '../services/problemService'
+import { deleteProblem, markRevisions } from '../services/problemService'
 
 const BulkOperations = ({ problems, selectedIds, setSelectedIds, onRefresh }) => {
   const [showTagInput, setShowTagInput] = useState(false)
@@ -33,12 +33,12 @@ const BulkOperations = ({ problems, selectedIds, setSelectedIds, onRefresh }) =>
     if (selectedIds.length === 0) return
 
     try {
-      for (const id of selectedIds) {
-        await markRevision(id, {
-          date: new Date().toISOString(),
-          timeSpent: null,
-          rating: null,
-        })
+      const results = await markRevisions(
+        selectedIds.map((id) => ({ problemId: id, revision: { timeSpent: null, rating: null } }))
+      )
+      const failed = results.filter((result) => !result.success)
+      if (failed.length > 0) {
+        alert(`${failed.length} problem(s) could not be marked as revised`)
       }
       setSelectedIds([])
       onRefresh()
@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react'
 import { X, Plus, Trash2, Code } from 'lucide-react'
-import { updateProblem } from '../services/problemService'
+import { patchProblem } from '../services/problemService'
 
 const EditProblemForm = ({ problem, onClose, onSuccess }) => {
   const [formData, setFormData] = useState({
@@ -16,11 +16,12 @@ const EditProblemForm = ({ problem, onClose, onSuccess }) => {
     approaches: [],
   })
 
+  const [initialData, setInitialData] = useState(null)
   const [tagInput, setTagInput] = useState('')
 
   useEffect(() => {
     if (problem) {
-      setFormData({
+      const data = {
         title: problem.title || '',
         pattern: problem.pattern || '',
         difficulty: problem.difficulty || 'Medium',
@@ -31,7 +32,9 @@ const EditProblemForm = ({ problem, onClose, onSuccess }) => {
         priority: problem.priority || 'Medium',
         revisionInterval: problem.revisionInterval || 7,
         approaches: problem.approaches || [],
-      })
+      }
+      setFormData(data)
+      setInitialData(data)
     }
   }, [problem])
 
@@ -43,8 +46,18 @@ const EditProblemForm = ({ problem, onClose, onSuccess }) => {
       return
     }
 
+    // Send only what was edited, so the server rewrites nothing else
+    const changes = {}
+    Object.keys(formData).forEach((key) => {
+      if (!initialData || JSON.stringify(formData[key]) !== JSON.stringify(initialData[key])) {
+        changes[key] = formData[key]
+      }
+    })
+
     try {
-      await updateProblem(problem.id, formData)
+      if (Object.keys(changes).length > 0) {
+        await patchProblem(problem.id, changes)
+      }
       onSuccess()
       onClose()
     } catch (error) {
@@ -18,7 +18,7 @@ const ProblemCard = ({ problem, onDelete, onRefresh, isEditing, onEdit, onCancel
         date: new Date().toISOString(),
         timeSpent: minutes,
         rating: null,
-      })
+      }, problem)
       setShowTimer(false)
       onRefresh()
     } catch (error) {
@@ -14,7 +14,7 @@ const RevisionModal = ({ problem, onClose, onSuccess }) => {
         date: new Date().toISOString(),
         timeSpent: timeSpent ? parseInt(timeSpent) : null,
         rating: rating > 0 ? rating : null,
-      })
+      }, problem)
       onSuccess()
       onClose()
     } catch (error) {
@@ -72,6 +72,17 @@ export const updateProblem = async (id, problem) => {
   }
 }
 
+// Partial update: only the fields in `changes` are modified
+export const patchProblem = async (id, changes) => {
+  try {
+    const response = await api.patch(`/problems/${id}`, changes)
+    return response.data
+  } catch (error) {
+    console.error('Error updating problem:', error)
+    throw error
+  }
+}
+
 export const deleteProblem = async (id) => {
   try {
     await api.delete(`/problems/${id}`)
@@ -81,16 +92,39 @@ export const deleteProblem = async (id) => {
   }
 }
 
-export const markRevision = async (id, revisionData) => {
+// The server does not reload the revision history to answer this, so solvedDates comes back null;
+// the new entry is appended to the history of the problem the caller already has
+export const markRevision = async (id, revisionData, problem) => {
   try {
     const response = await api.post(`/problems/${id}/revision`, revisionData)
-    return response.data
+    const updated = response.data
+    if (updated.solvedDates == null) {
+      updated.solvedDates = [
+        ...(problem?.solvedDates || []),
+        {
+          date: revisionData.date || new Date().toISOString(),
+          timeSpent: revisionData.timeSpent || 0,
+          rating: revisionData.rating || 0,
+        },
+      ]
+    }
+    return updated
   } catch (error) {
     console.error('Error marking revision:', error)
     throw error
   }
 }
 
+export const markRevisions = async (items) => {
+  try {
+    const response = await api.post('/problems/revisions', items)
+    return response.data
+  } catch (error) {
+    console.error('Error marking revisions:', error)
+    throw error
+  }
+}
+
 export const exportData = async () => {
   try {
     const response = await api.get('/problems/export')
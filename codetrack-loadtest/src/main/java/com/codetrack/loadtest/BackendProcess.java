@@ -0,0 +1,98 @@
+package com.codetrack.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The backend jar running in a child JVM on the dev profile (in-memory H2), with SQL
+ * logging off so the log does not become the bottleneck.
+ */
+class BackendProcess implements AutoCloseable {
+    
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(90);
+    
+    private final Process process;
+    private final Path log;
+    
+    private BackendProcess(Process process, Path log) {
+        this.process = process;
+        this.log = log;
+    }
+    
+    static BackendProcess start(LoadTestOptions options, String mode) throws IOException, InterruptedException {
+        if (!Files.isRegularFile(options.jar)) {
+            throw new IllegalStateException("Backend jar not found at " + options.jar.toAbsolutePath()
+                    + "; run 'mvn package' in codetrack-backend first");
+        }
+        String profiles = mode.equals("virtual") ? "dev,virtual" : "dev";
+        List<String> command = new ArrayList<>(List.of(
+                options.javaFor(mode), "-jar", options.jar.toString(),
+                "--spring.profiles.active=" + profiles,
+                "--server.port=" + options.port,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.com.codetrack=INFO",
+                "--spring.h2.console.enabled=false",
+                "--codetrack.rate-limit.enabled=false")); // a few users drive the whole load
+        
+        Path log = Path.of("target", "backend-" + mode + ".log");
+        Files.createDirectories(log.getParent());
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        BackendProcess backend = new BackendProcess(process, log);
+        backend.awaitHealthy(options.port);
+        return backend;
+    }
+    
+    /**
+     * The threading line logged by the backend at startup, to confirm the mode actually in effect.
+     */
+    String threadingMode() throws IOException {
+        for (String line : Files.readAllLines(log)) {
+            if (line.contains("Serving requests on") || line.contains("spring.threads.virtual.enabled is set")) {
+                return line.substring(line.lastIndexOf(" : ") + 3).trim();
+            }
+        }
+        return "unknown";
+    }
+    
+    private void awaitHealthy(int port) throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/health")).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Backend exited during startup, see " + log.toAbsolutePath());
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(250);
+        }
+        close();
+        throw new IllegalStateException("Backend did not become healthy within " + STARTUP_TIMEOUT.toSeconds() + "s");
+    }
+    
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(20, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
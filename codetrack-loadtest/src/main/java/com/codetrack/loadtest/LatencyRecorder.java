@@ -0,0 +1,76 @@
+package com.codetrack.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-worker latency samples for one operation. Workers never share a recorder, so
+ * recording is a plain array append; recorders are merged once the run is over.
+ */
+class LatencyRecorder {
+    
+    private long[] samples = new long[1024]; // nanoseconds
+    private int size;
+    private long errors;
+    private long rejected; // 429/503 responses
+    
+    void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+    
+    void error() {
+        errors++;
+    }
+    
+    void rejected() {
+        rejected++;
+    }
+    
+    void merge(LatencyRecorder other) {
+        if (size + other.size > samples.length) {
+            samples = Arrays.copyOf(samples, size + other.size);
+        }
+        System.arraycopy(other.samples, 0, samples, size, other.size);
+        size += other.size;
+        errors += other.errors;
+        rejected += other.rejected;
+    }
+    
+    int count() {
+        return size;
+    }
+    
+    Map<String, Object> summary(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", size);
+        summary.put("errors", errors);
+        summary.put("rejected", rejected);
+        summary.put("throughput", round(size / seconds));
+        summary.put("p50Ms", millis(percentile(sorted, 0.50)));
+        summary.put("p99Ms", millis(percentile(sorted, 0.99)));
+        summary.put("maxMs", millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        return summary;
+    }
+    
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+    
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,307 @@
+package com.codetrack.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Boots the backend on H2 once per serving mode (platform threads, virtual threads), seeds users
+ * and problems, then drives a weighted mix of list/get/create/revision/login requests from
+ * {@code concurrency} closed-loop clients. Samples from the warm-up period are discarded.
+ * Prints throughput and p50/p99 latency per mode and operation, and writes them as JSON.
+ *
+ * <pre>
+ * cd codetrack-backend &amp;&amp; mvn -q package -DskipTests
+ * cd ../codetrack-loadtest &amp;&amp; mvn -q compile exec:java -Dexec.args="--concurrency=128 --duration=60"
+ * </pre>
+ */
+public class LoadTest {
+    
+    private static final String PASSWORD = "loadtest-password";
+    private static final int MAX_CREATED_PER_USER = 100_000;
+    
+    private final LoadTestOptions options;
+    private final String mode;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+    
+    private final List<String> usernames = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+    
+    // Ids of each user's problems (a problem is only visible to its owner); a slot that is still 0 is simply retried
+    private final List<AtomicLongArray> problemIds = new ArrayList<>();
+    private final List<AtomicInteger> problemCounts = new ArrayList<>();
+    
+    private volatile boolean measuring;
+    private volatile boolean stopped;
+    
+    LoadTest(LoadTestOptions options, String mode) {
+        this.options = options;
+        this.mode = mode;
+        this.baseUrl = "http://localhost:" + options.port + "/api";
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        
+        Map<String, Object> results = new LinkedHashMap<>();
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("concurrency", options.concurrency);
+        config.put("warmupSeconds", options.warmup.toSeconds());
+        config.put("durationSeconds", options.duration.toSeconds());
+        config.put("users", options.users);
+        config.put("seedProblems", options.seedProblems);
+        config.put("mix", options.mix);
+        results.put("config", config);
+        
+        Map<String, Object> modes = new LinkedHashMap<>();
+        for (String mode : options.modes) {
+            System.out.printf("%n== %s: starting backend%n", mode);
+            try (BackendProcess backend = BackendProcess.start(options, mode)) {
+                String threading = backend.threadingMode();
+                System.out.println("   " + threading);
+                Map<String, Object> result = new LoadTest(options, mode).run();
+                result.put("threading", threading);
+                modes.put(mode, result);
+            }
+        }
+        results.put("modes", modes);
+        
+        Files.createDirectories(options.out.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.out.toFile(), results);
+        System.out.printf("%nResults written to %s%n", options.out.toAbsolutePath());
+    }
+    
+    Map<String, Object> run() throws Exception {
+        seed();
+        
+        List<Map<String, LatencyRecorder>> perWorker = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < options.concurrency; i++) {
+            Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+            for (String op : LoadTestOptions.OPERATIONS) {
+                recorders.put(op, new LatencyRecorder());
+            }
+            perWorker.add(recorders);
+            int user = i % usernames.size();
+            Thread worker = new Thread(() -> work(user, recorders), "load-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+        
+        System.out.printf("   warming up for %ds with %d clients%n", options.warmup.toSeconds(), options.concurrency);
+        workers.forEach(Thread::start);
+        Thread.sleep(options.warmup.toMillis());
+        measuring = true;
+        long start = System.nanoTime();
+        System.out.printf("   measuring for %ds%n", options.duration.toSeconds());
+        Thread.sleep(options.duration.toMillis());
+        measuring = false;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        stopped = true;
+        for (Thread worker : workers) {
+            worker.join(30_000);
+        }
+        
+        Map<String, LatencyRecorder> merged = new LinkedHashMap<>();
+        LatencyRecorder total = new LatencyRecorder();
+        for (String op : LoadTestOptions.OPERATIONS) {
+            LatencyRecorder opTotal = new LatencyRecorder();
+            for (Map<String, LatencyRecorder> recorders : perWorker) {
+                opTotal.merge(recorders.get(op));
+            }
+            merged.put(op, opTotal);
+            total.merge(opTotal);
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", total.summary(seconds));
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyRecorder> entry : merged.entrySet()) {
+            if (entry.getValue().count() > 0) {
+                operations.put(entry.getKey(), entry.getValue().summary(seconds));
+            }
+        }
+        result.put("operations", operations);
+        print(result);
+        return result;
+    }
+    
+    private void seed() throws IOException, InterruptedException {
+        for (int i = 0; i < options.users; i++) {
+            String username = "load_" + mode + "_" + i;
+            String body = "{\"username\":\"" + username + "\",\"email\":\"" + username
+                    + "@loadtest.local\",\"password\":\"" + PASSWORD + "\"}";
+            HttpResponse<String> response = send(post("/auth/register", body, null));
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Register failed: " + response.statusCode() + " " + response.body());
+            }
+            usernames.add(username);
+            tokens.add(mapper.readTree(response.body()).get("token").asText());
+            problemIds.add(new AtomicLongArray(MAX_CREATED_PER_USER));
+            problemCounts.add(new AtomicInteger());
+        }
+        for (int i = 0; i < options.seedProblems; i++) {
+            int owner = i % tokens.size();
+            HttpResponse<String> response = send(post("/problems", problemJson(i), tokens.get(owner)));
+            if (response.statusCode() != 201 && response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed: " + response.statusCode() + " " + response.body());
+            }
+            addProblem(owner, mapper.readTree(response.body()).get("id").asLong());
+        }
+        System.out.printf("   seeded %d users, %d problems%n", options.users, options.seedProblems);
+    }
+    
+    private void work(int user, Map<String, LatencyRecorder> recorders) {
+        String token = tokens.get(user);
+        String username = usernames.get(user);
+        List<String> ops = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int totalWeight = 0;
+        for (String op : LoadTestOptions.OPERATIONS) {
+            int weight = options.mix.getOrDefault(op, 0);
+            if (weight > 0) {
+                totalWeight += weight;
+                ops.add(op);
+                cumulative.add(totalWeight);
+            }
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int sequence = 0;
+        
+        while (!stopped) {
+            int pick = random.nextInt(totalWeight);
+            int index = 0;
+            while (cumulative.get(index) <= pick) {
+                index++;
+            }
+            String op = ops.get(index);
+            HttpRequest request = switch (op) {
+                case "list" -> get("/problems?limit=20", token);
+                case "get" -> get("/problems/" + randomProblem(user, random), token);
+                case "create" -> post("/problems", problemJson(sequence++), token);
+                case "revision" -> post("/problems/" + randomProblem(user, random) + "/revision",
+                        "{\"timeSpent\":" + random.nextInt(5, 60) + ",\"rating\":" + random.nextInt(1, 6) + "}", token);
+                case "login" -> post("/auth/login",
+                        "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}", null);
+                default -> throw new IllegalStateException(op);
+            };
+            
+            boolean record = measuring;
+            LatencyRecorder recorder = recorders.get(op);
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = send(request);
+                long elapsed = System.nanoTime() - start;
+                int status = response.statusCode();
+                if (status < 400) {
+                    if (op.equals("create")) {
+                        addProblem(user, mapper.readTree(response.body()).get("id").asLong());
+                    }
+                    if (record) {
+                        recorder.record(elapsed);
+                    }
+                } else if (record && (status == 429 || status == 503)) {
+                    recorder.rejected();
+                } else if (record) {
+                    recorder.error();
+                }
+            } catch (IOException e) {
+                if (record) {
+                    recorder.error();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    private long randomProblem(int user, ThreadLocalRandom random) {
+        int count = Math.min(problemCounts.get(user).get(), MAX_CREATED_PER_USER);
+        long id = 0;
+        while (id == 0) {
+            id = problemIds.get(user).get(random.nextInt(count));
+        }
+        return id;
+    }
+    
+    private void addProblem(int user, long id) {
+        int slot = problemCounts.get(user).getAndIncrement();
+        if (slot < MAX_CREATED_PER_USER) {
+            problemIds.get(user).set(slot, id);
+        }
+    }
+    
+    private String problemJson(int n) {
+        String[] difficulties = {"Easy", "Medium", "Hard"};
+        String[] patterns = {"Arrays", "Two Pointers", "Graphs", "Dynamic Programming", "Trees"};
+        return "{\"title\":\"Load " + mode + " " + n + " " + Thread.currentThread().getName() + "\","
+                + "\"pattern\":\"" + patterns[n % patterns.length] + "\","
+                + "\"difficulty\":\"" + difficulties[n % difficulties.length] + "\","
+                + "\"link\":\"https://example.com/problems/" + n + "\","
+                + "\"priority\":\"Medium\",\"revisionInterval\":7,"
+                + "\"tags\":[\"loadtest\",\"" + patterns[n % patterns.length].toLowerCase() + "\"],"
+                + "\"notes\":\"Generated by the load test\","
+                + "\"approaches\":[{\"notes\":\"Brute force first, then optimise\",\"code\":\"for (int i = 0; i < n; i++) { }\"}]}";
+    }
+    
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+    
+    private HttpRequest post(String path, String json, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+    
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void print(Map<String, Object> result) {
+        System.out.printf("   %-10s %9s %10s %7s %9s %9s %9s%n", "operation", "requests", "req/s", "errors", "rejected", "p50 ms", "p99 ms");
+        Map<String, Object> operations = (Map<String, Object>) result.get("operations");
+        for (Map.Entry<String, Object> entry : operations.entrySet()) {
+            printRow(entry.getKey(), (Map<String, Object>) entry.getValue());
+        }
+        printRow("total", (Map<String, Object>) result.get("total"));
+    }
+    
+    private static void printRow(String name, Map<String, Object> s) {
+        System.out.printf("   %-10s %9s %10s %7s %9s %9s %9s%n", name, s.get("requests"), s.get("throughput"),
+                s.get("errors"), s.get("rejected"), s.get("p50Ms"), s.get("p99Ms"));
+    }
+}
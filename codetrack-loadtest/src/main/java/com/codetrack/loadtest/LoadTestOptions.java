@@ -0,0 +1,92 @@
+package com.codetrack.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}. Every option has a default so
+ * {@code mvn exec:java} with no arguments runs both modes against a locally built jar.
+ */
+public class LoadTestOptions {
+    
+    static final List<String> OPERATIONS = List.of("list", "get", "create", "revision", "login");
+    
+    Path jar = Path.of("../codetrack-backend/target/codetrack-backend-1.0.0.jar");
+    String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    String virtualJava; // defaults to java; must be a Java 21+ runtime for virtual threads
+    List<String> modes = List.of("platform", "virtual");
+    int port = 18086;
+    int concurrency = 64;
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(30);
+    int users = 16;
+    int seedProblems = 200;
+    Path out = Path.of("target/loadtest-results.json");
+    Map<String, Integer> mix = defaultMix();
+    
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "jar" -> options.jar = Path.of(value);
+                case "java" -> options.java = value;
+                case "virtual-java" -> options.virtualJava = value;
+                case "modes" -> options.modes = List.of(value.split(","));
+                case "port" -> options.port = Integer.parseInt(value);
+                case "concurrency" -> options.concurrency = Integer.parseInt(value);
+                case "warmup" -> options.warmup = Duration.ofSeconds(Long.parseLong(value));
+                case "duration" -> options.duration = Duration.ofSeconds(Long.parseLong(value));
+                case "users" -> options.users = Integer.parseInt(value);
+                case "seed-problems" -> options.seedProblems = Integer.parseInt(value);
+                case "out" -> options.out = Path.of(value);
+                case "mix" -> options.mix = parseMix(value);
+                default -> throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        if (options.seedProblems < options.users) {
+            // get and revision pick among the client's own problems, so every user needs one
+            throw new IllegalArgumentException("--seed-problems must be at least --users");
+        }
+        for (String mode : options.modes) {
+            if (!mode.equals("platform") && !mode.equals("virtual")) {
+                throw new IllegalArgumentException("Unknown mode: " + mode);
+            }
+        }
+        return options;
+    }
+    
+    String javaFor(String mode) {
+        return mode.equals("virtual") && virtualJava != null ? virtualJava : java;
+    }
+    
+    // Relative weights of each operation, e.g. "list=35,get=25,create=10,revision=25,login=5"
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new HashMap<>();
+        for (String part : value.split(",")) {
+            String[] kv = part.split("=");
+            if (!OPERATIONS.contains(kv[0])) {
+                throw new IllegalArgumentException("Unknown operation in mix: " + kv[0]);
+            }
+            mix.put(kv[0], Integer.parseInt(kv[1]));
+        }
+        return mix;
+    }
+    
+    private static Map<String, Integer> defaultMix() {
+        Map<String, Integer> mix = new HashMap<>();
+        mix.put("list", 35);
+        mix.put("get", 25);
+        mix.put("create", 10);
+        mix.put("revision", 25);
+        mix.put("login", 5);
+        return mix;
+    }
+}